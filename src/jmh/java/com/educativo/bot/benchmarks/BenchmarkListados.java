@@ -0,0 +1,132 @@
+package com.educativo.bot.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.educativo.bot.comandos.ComandoSistema;
+import com.educativo.bot.comandos.ComandoTareas;
+import com.educativo.bot.modelos.Tarea;
+import com.educativo.bot.servicios.AlmacenTareas;
+import com.educativo.bot.servicios.EstadisticasGlobales;
+import com.educativo.bot.servicios.IndiceMaterias;
+import com.educativo.bot.servicios.ProgramadorRecordatorios;
+import com.educativo.bot.servicios.RegistroUsuarios;
+import com.educativo.bot.servicios.SesionesVista;
+import com.educativo.bot.servicios.VersionesDatos;
+
+/**
+ * BENCHMARK: Listados y ranking
+ * 
+ * Ejecuta los comandos directamente (sin la caché de respuestas ni los
+ * demás interceptores), así se mide el trabajo real de cada listado:
+ * 
+ * - Las variantes de "!tarea listar" (todas, pendientes, completadas,
+ *   vencidas) y "!tarea buscar", que terminan en formatearListaTareas.
+ *   Todas las tareas son de un mismo usuario: el peor caso del filtrado.
+ * - "!sistema puntos ranking", que termina en verRanking, con tantos
+ *   usuarios como tareas.
+ * 
+ * Un tercio de las tareas está completado, un tercio venció y el resto
+ * está pendiente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkListados {
+    
+    private static final String USUARIO = "100000000000000001";
+    private static final String CANAL = "200000000000000001";
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int tareas;                     // Tareas del usuario (y usuarios en el ranking)
+    
+    private ComandoTareas comandoTareas;
+    private ComandoSistema comandoSistema;
+    
+    @Setup
+    public void preparar() {
+        VersionesDatos versiones = new VersionesDatos();
+        EstadisticasGlobales estadisticas = new EstadisticasGlobales();
+        AlmacenTareas almacen = new AlmacenTareas(versiones, estadisticas);
+        IndiceMaterias materias = new IndiceMaterias(versiones, estadisticas);
+        RegistroUsuarios usuarios = new RegistroUsuarios(versiones, estadisticas);
+        
+        // Carga en lote, igual que al leer una instantánea
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Tarea> lote = new ArrayList<>(tareas);
+        for (int i = 0; i < tareas; i++) {
+            Tarea tarea = new Tarea("t" + i, "Tarea " + i + " de álgebra", "Ejercicios del capítulo " + (i % 20),
+                    "MAT" + (100 + i % 10), USUARIO, 1 + i % 3);
+            switch (i % 3) {
+                case 0:
+                    tarea.setCompletada(true);
+                    break;
+                case 1:
+                    tarea.setFechaVencimiento(ahora.minusDays(1 + i % 30));
+                    break;
+                default:
+                    tarea.setFechaVencimiento(ahora.plusDays(1 + i % 30));
+                    break;
+            }
+            lote.add(tarea);
+        }
+        almacen.cargarInstantanea(lote);
+        
+        for (int i = 0; i < tareas; i++) {
+            usuarios.agregarPuntos(usuarios.obtenerOCrear(String.valueOf(300000000000000000L + i)), i % 5000, null);
+        }
+        
+        ProgramadorRecordatorios recordatorios = new ProgramadorRecordatorios(List.of(Duration.ofHours(1)),
+                60_000, 64, 5, (usuarioId, mensaje) -> { });
+        comandoTareas = new ComandoTareas(almacen, new SesionesVista(10_000, 60_000), materias, usuarios, recordatorios);
+        comandoSistema = new ComandoSistema(almacen, usuarios, estadisticas);
+    }
+    
+    @Benchmark
+    public String listarTodas() {
+        return comandoTareas.ejecutar(new String[]{"listar"}, CANAL, USUARIO);
+    }
+    
+    @Benchmark
+    public String listarPendientes() {
+        return comandoTareas.ejecutar(new String[]{"listar", "pendientes"}, CANAL, USUARIO);
+    }
+    
+    @Benchmark
+    public String listarCompletadas() {
+        return comandoTareas.ejecutar(new String[]{"listar", "completadas"}, CANAL, USUARIO);
+    }
+    
+    @Benchmark
+    public String listarVencidas() {
+        return comandoTareas.ejecutar(new String[]{"listar", "vencidas"}, CANAL, USUARIO);
+    }
+    
+    @Benchmark
+    public String buscar() {
+        return comandoTareas.ejecutar(new String[]{"buscar", "algebra"}, CANAL, USUARIO);
+    }
+    
+    @Benchmark
+    public String verRanking() {
+        return comandoSistema.ejecutar(new String[]{"puntos", "ranking", "50"}, CANAL, USUARIO);
+    }
+}
@@ -0,0 +1,79 @@
+package com.educativo.bot.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.educativo.bot.ProcesadorComandos;
+import com.educativo.bot.utils.FormateadorMensajes;
+
+/**
+ * BENCHMARK: Texto de los mensajes
+ * 
+ * - Separación de un mensaje en comando y argumentos, tal como la hace
+ *   procesarComando antes de buscar el comando.
+ * - División de respuestas largas en partes de 2000 caracteres.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkMensajes {
+    
+    private static final int LARGO_MAXIMO_MENSAJE = 2000;
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int largo;                      // Caracteres de la respuesta a dividir
+    
+    private String comandoCorto;
+    private String comandoLargo;
+    private String respuesta;
+    
+    @Setup
+    public void preparar() {
+        comandoCorto = "!tarea listar pendientes";
+        comandoLargo = "!tarea crear \"Leer el capítulo 4 del libro de álgebra lineal y resolver los ejercicios pares\" MAT101 alta";
+        
+        StringBuilder sb = new StringBuilder(largo);
+        while (sb.length() < largo) {
+            sb.append("• **Tarea de ejemplo** - 📚 MAT101 - vence el 12/05 14:00\n");
+        }
+        respuesta = sb.substring(0, largo);
+    }
+    
+    @Benchmark
+    public String[] parsearComandoCorto() {
+        return separarArgumentos(ProcesadorComandos.parsearComando(comandoCorto));
+    }
+    
+    @Benchmark
+    public String[] parsearComandoLargo() {
+        return separarArgumentos(ProcesadorComandos.parsearComando(comandoLargo));
+    }
+    
+    @Benchmark
+    public String[] dividirMensaje() {
+        return FormateadorMensajes.dividirMensaje(respuesta, LARGO_MAXIMO_MENSAJE);
+    }
+    
+    /**
+     * Copia de los argumentos, como en procesarComando
+     */
+    private static String[] separarArgumentos(String[] partes) {
+        String[] argumentos = new String[partes.length - 1];
+        System.arraycopy(partes, 1, argumentos, 0, argumentos.length);
+        return argumentos;
+    }
+}
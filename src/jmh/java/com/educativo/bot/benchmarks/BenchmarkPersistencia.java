@@ -0,0 +1,96 @@
+package com.educativo.bot.benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.educativo.bot.servicios.GestorDatosArchivo;
+import com.google.gson.Gson;
+
+/**
+ * BENCHMARK: Persistencia en archivo JSON
+ * 
+ * - guardar: cambia una clave y reescribe el archivo completo
+ *   (persistirDatos, que es privado, se mide a través de guardar).
+ * - cargarDatos: construir el gestor lee y deserializa el archivo.
+ * 
+ * El archivo de partida tiene tantas entradas como indica el parámetro,
+ * con la forma que le da InterceptorRegistroUso (contadores de uso y
+ * última actividad por usuario).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkPersistencia {
+    
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int entradas;                   // Claves guardadas en el archivo
+    
+    private File directorio;
+    private String rutaArchivo;
+    private GestorDatosArchivo gestor;
+    private int contador;
+    
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("benchmark-datos").toFile();
+        rutaArchivo = new File(directorio, "datos.json").getPath();
+        
+        // Se escribe el archivo de una vez: con guardar, cada entrada reescribiría todo
+        Map<String, Object> datos = new LinkedHashMap<>();
+        for (int i = 0; i < entradas; i++) {
+            String usuarioId = String.valueOf(300000000000000000L + i / 2);
+            if (i % 2 == 0) {
+                datos.put("uso_tarea_" + usuarioId, i % 100);
+            } else {
+                datos.put("ultima_actividad_" + usuarioId, System.currentTimeMillis());
+            }
+        }
+        try (FileWriter writer = new FileWriter(rutaArchivo)) {
+            new Gson().toJson(datos, writer);
+        }
+        gestor = new GestorDatosArchivo(rutaArchivo);
+    }
+    
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        File[] archivos = directorio.listFiles();
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                archivo.delete();
+            }
+        }
+        directorio.delete();
+    }
+    
+    @Benchmark
+    public boolean guardar() {
+        return gestor.guardar("uso_benchmark", contador++);
+    }
+    
+    @Benchmark
+    public GestorDatosArchivo cargarDatos() {
+        return new GestorDatosArchivo(rutaArchivo);
+    }
+}
@@ -0,0 +1,30 @@
+package com.educativo.bot.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * PUNTO DE ENTRADA DE LOS BENCHMARKS
+ * 
+ * Igual que el Main de JMH (acepta las mismas opciones: filtro por nombre,
+ * -p tareas=1000, -f, -wi, -i, ...), pero siempre agrega el perfilador de
+ * GC, así cada resultado muestra también los bytes asignados por operación
+ * y una regresión de memoria se ve aunque el tiempo no cambie.
+ * 
+ * Ejemplos:
+ *   java -jar target/discord-bot-educativo-1.0.0-benchmarks.jar
+ *   java -jar target/discord-bot-educativo-1.0.0-benchmarks.jar BenchmarkListados -p tareas=1000,10000
+ */
+public class EjecutarBenchmarks {
+    
+    public static void main(String[] args) throws Exception {
+        Options opciones = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
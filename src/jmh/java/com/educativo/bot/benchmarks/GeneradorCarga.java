@@ -0,0 +1,389 @@
+package com.educativo.bot.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import com.educativo.bot.ProcesadorComandos;
+import com.educativo.bot.interfaces.GestorDatos;
+import com.educativo.bot.modelos.Permiso;
+import com.educativo.bot.servicios.GestorDatosArchivo;
+import com.educativo.bot.servicios.GestorDatosMemoria;
+import com.educativo.bot.servicios.ParticionServidor;
+import com.educativo.bot.servicios.ParticionesServidor;
+import com.educativo.bot.servicios.ProgramadorRecordatorios;
+
+/**
+ * GENERADOR DE CARGA SIN DISCORD
+ * 
+ * Alimenta el mismo ProcesadorComandos que usa el bot (particiones,
+ * interceptores, caché, comandos) con mensajes sintéticos de miles de
+ * usuarios y canales simulados, desde varios hilos a la vez. Las respuestas
+ * se capturan en memoria en lugar de enviarse.
+ * 
+ * Al terminar informa el rendimiento total y, por cada tipo de mensaje, la
+ * cantidad, las respuestas de error y las latencias p50 / p99 / p999.
+ * 
+ * Uso (con el JAR del perfil benchmarks):
+ *   java -cp target/discord-bot-educativo-1.0.0-benchmarks.jar \
+ *        com.educativo.bot.benchmarks.GeneradorCarga --hilos=8 --usuarios=5000 --mensajes=200000
+ * 
+ * Opciones (todas con --clave=valor):
+ *   usuarios        Usuarios simulados (2000)
+ *   servidores      Servidores simulados; cada usuario pertenece a uno (10)
+ *   canales         Canales por servidor (20)
+ *   tareas          Tareas que cada usuario crea antes de medir (10)
+ *   hilos           Hilos enviando mensajes a la vez (núcleos disponibles)
+ *   mensajes        Mensajes medidos (100000)
+ *   calentamiento   Mensajes previos sin medir, para que compile el JIT (20000)
+ *   persistencia    true = GestorDatosArchivo en un directorio temporal;
+ *                   false = GestorDatosMemoria (false)
+ *   semilla         Semilla del generador aleatorio (42)
+ */
+public class GeneradorCarga {
+    
+    private static final long ID_BASE_SERVIDOR = 900000000000000000L;
+    private static final long ID_BASE_CANAL = 910000000000000000L;
+    private static final long ID_BASE_USUARIO = 920000000000000000L;
+    private static final int MATERIAS_POR_SERVIDOR = 5;
+    private static final long UMBRAL_COMANDO_LENTO_MS = 500;
+    
+    /**
+     * Un tipo de mensaje de la mezcla, con su peso relativo
+     */
+    private static final class Plantilla {
+        private final String nombre;
+        private final int peso;
+        private final IntFunction<String> mensaje;   // Recibe un número al azar para variar el texto
+        
+        private Plantilla(String nombre, int peso, IntFunction<String> mensaje) {
+            this.nombre = nombre;
+            this.peso = peso;
+            this.mensaje = mensaje;
+        }
+    }
+    
+    /**
+     * Mezcla de mensajes: mayormente lecturas, como en un servidor real
+     */
+    private static final List<Plantilla> MEZCLA = List.of(
+            new Plantilla("tarea listar", 20, n -> "!tarea listar"),
+            new Plantilla("tarea listar pendientes", 10, n -> "!tarea listar pendientes"),
+            new Plantilla("tarea listar vencidas", 5, n -> "!tarea listar vencidas"),
+            new Plantilla("tarea buscar", 10, n -> "!tarea buscar " + (n % 2 == 0 ? "estudiar" : "capitulo")),
+            new Plantilla("tarea crear", 15, n -> "!tarea crear \"Estudiar capítulo " + n % 50 + "\" \"Repaso\" MAT"
+                    + (100 + n % MATERIAS_POR_SERVIDOR) + " " + (1 + n % 3)),
+            new Plantilla("tarea completar", 10, n -> "!tarea completar " + (1 + n % 5)),
+            new Plantilla("sistema puntos", 10, n -> "!sistema puntos"),
+            new Plantilla("sistema puntos ranking", 10, n -> "!sistema puntos ranking 10"),
+            new Plantilla("materia listar", 5, n -> "!materia listar"),
+            new Plantilla("sistema stats", 5, n -> "!sistema stats"));
+    
+    /**
+     * Latencias de un tipo de mensaje, registradas por un solo hilo
+     */
+    private static final class Latencias {
+        private long[] valores = new long[1024];
+        private int cantidad;
+        private int errores;
+        
+        private void registrar(long nanos, boolean error) {
+            if (cantidad == valores.length) {
+                valores = Arrays.copyOf(valores, cantidad * 2);
+            }
+            valores[cantidad++] = nanos;
+            if (error) {
+                errores++;
+            }
+        }
+        
+        private void agregar(Latencias otras) {
+            for (int i = 0; i < otras.cantidad; i++) {
+                registrar(otras.valores[i], false);
+            }
+            errores += otras.errores;
+        }
+        
+        private long percentil(double p) {
+            return valores[Math.max(0, (int) Math.ceil(p * cantidad) - 1)];
+        }
+    }
+    
+    /**
+     * Respuestas capturadas en memoria en lugar de enviarse a Discord
+     */
+    private static final class BandejaRespuestas {
+        private final Map<String, String> ultimaPorCanal = new ConcurrentHashMap<>();
+        private final LongAdder respuestas = new LongAdder();
+        private final LongAdder caracteres = new LongAdder();
+        private final LongAdder paginadas = new LongAdder();
+        
+        private void recibir(String canalId, ProcesadorComandos.Respuesta respuesta) {
+            ultimaPorCanal.put(canalId, respuesta.getTexto());
+            respuestas.increment();
+            caracteres.add(respuesta.getTexto().length());
+            if (respuesta.getListadoId() != null) {
+                paginadas.increment();
+            }
+        }
+    }
+    
+    // ENCAPSULAMIENTO: Configuración de la corrida
+    private final int usuarios;
+    private final int servidores;
+    private final int canales;
+    private final int tareasPorUsuario;
+    private final int hilos;
+    private final int mensajes;
+    private final int calentamiento;
+    private final boolean persistencia;
+    private final long semilla;
+    
+    private final ProcesadorComandos procesador;
+    private final ParticionesServidor particiones;
+    private final BandejaRespuestas bandeja = new BandejaRespuestas();
+    private final LongAdder mensajesDirectos = new LongAdder();
+    private final int pesoTotal;
+    
+    public GeneradorCarga(Map<String, String> opciones) throws IOException {
+        this.usuarios = entero(opciones, "usuarios", 2000);
+        this.servidores = entero(opciones, "servidores", 10);
+        this.canales = entero(opciones, "canales", 20);
+        this.tareasPorUsuario = entero(opciones, "tareas", 10);
+        this.hilos = entero(opciones, "hilos", Runtime.getRuntime().availableProcessors());
+        this.mensajes = entero(opciones, "mensajes", 100_000);
+        this.calentamiento = entero(opciones, "calentamiento", 20_000);
+        this.persistencia = Boolean.parseBoolean(opciones.getOrDefault("persistencia", "false"));
+        this.semilla = Long.parseLong(opciones.getOrDefault("semilla", "42"));
+        
+        String directorio = persistencia ? Files.createTempDirectory("carga-datos").toString() : null;
+        ProgramadorRecordatorios recordatorios = new ProgramadorRecordatorios(List.of(Duration.ofHours(1)),
+                60_000, 1440, 5, (usuarioId, mensaje) -> mensajesDirectos.increment());
+        this.particiones = new ParticionesServidor(servidorId -> {
+            GestorDatos gestorDatos = directorio == null
+                    ? new GestorDatosMemoria()
+                    : new GestorDatosArchivo(directorio + "/" + servidorId + ".json");
+            ParticionServidor particion = new ParticionServidor(servidorId, 0, gestorDatos, null, 256);
+            ProcesadorComandos.registrarComandos(particion, recordatorios);
+            return particion;
+        });
+        this.procesador = new ProcesadorComandos(particiones,
+                ProcesadorComandos.configurarInterceptores(UMBRAL_COMANDO_LENTO_MS));
+        
+        int suma = 0;
+        for (Plantilla plantilla : MEZCLA) {
+            suma += plantilla.peso;
+        }
+        this.pesoTotal = suma;
+    }
+    
+    /**
+     * Crea las materias de cada servidor y las tareas iniciales de cada usuario
+     */
+    public void prepararDatos() throws Exception {
+        long inicio = System.nanoTime();
+        for (int s = 0; s < servidores; s++) {
+            for (int m = 0; m < MATERIAS_POR_SERVIDOR; m++) {
+                procesador.procesar("!materia crear MAT" + (100 + m) + " \"Materia " + m + "\"",
+                        idUsuario(s), idCanal(s, 0), idServidor(s), Permiso.mascara(Permiso.values()));
+            }
+        }
+        
+        ejecutarEnHilos(usuarios, (hilo, desde, hasta) -> {
+            for (int u = desde; u < hasta; u++) {
+                int s = u % servidores;
+                for (int t = 0; t < tareasPorUsuario; t++) {
+                    procesador.procesar("!tarea crear \"Estudiar capítulo " + t + "\" \"Tarea inicial\" MAT"
+                            + (100 + t % MATERIAS_POR_SERVIDOR) + " " + (1 + t % 3),
+                            idUsuario(u), idCanal(s, t % canales), idServidor(s), 0L);
+                }
+            }
+            return null;
+        });
+        
+        System.out.println("📦 Datos iniciales: " + servidores + " servidor(es), " + usuarios + " usuario(s), " +
+                           (long) usuarios * tareasPorUsuario + " tarea(s) en " +
+                           (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+    
+    /**
+     * Envía la carga y devuelve las latencias por tipo de mensaje
+     * 
+     * @param cantidad Mensajes a enviar entre todos los hilos
+     * @param semillaCorrida Semilla de esta corrida
+     */
+    private Map<String, Latencias> enviar(int cantidad, long semillaCorrida) throws Exception {
+        List<Map<String, Latencias>> porHilo = ejecutarEnHilos(cantidad, (hilo, desde, hasta) -> {
+            Random azar = new Random(semillaCorrida + hilo);
+            Map<String, Latencias> latencias = new HashMap<>();
+            for (int i = desde; i < hasta; i++) {
+                Plantilla plantilla = elegir(azar.nextInt(pesoTotal));
+                int u = azar.nextInt(usuarios);
+                int s = u % servidores;
+                String canalId = idCanal(s, azar.nextInt(canales));
+                String texto = plantilla.mensaje.apply(azar.nextInt(1_000_000));
+                
+                long inicio = System.nanoTime();
+                ProcesadorComandos.Respuesta respuesta = procesador.procesar(texto, idUsuario(u), canalId,
+                        idServidor(s), 0L);
+                long duracion = System.nanoTime() - inicio;
+                
+                boolean error = respuesta != null && respuesta.getTexto().startsWith("❌");
+                if (respuesta != null) {
+                    bandeja.recibir(canalId, respuesta);
+                }
+                latencias.computeIfAbsent(plantilla.nombre, nombre -> new Latencias()).registrar(duracion, error);
+            }
+            return latencias;
+        });
+        
+        Map<String, Latencias> total = new LinkedHashMap<>();
+        for (Plantilla plantilla : MEZCLA) {
+            total.put(plantilla.nombre, new Latencias());
+        }
+        for (Map<String, Latencias> latencias : porHilo) {
+            for (Map.Entry<String, Latencias> entrada : latencias.entrySet()) {
+                total.get(entrada.getKey()).agregar(entrada.getValue());
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Corre el calentamiento y la medición, e imprime el informe
+     */
+    public void ejecutar() throws Exception {
+        prepararDatos();
+        
+        if (calentamiento > 0) {
+            System.out.println("🔥 Calentamiento: " + calentamiento + " mensaje(s)...");
+            enviar(calentamiento, semilla * 31);
+        }
+        
+        System.out.println("🚀 Midiendo: " + mensajes + " mensaje(s) con " + hilos + " hilo(s)...");
+        long respuestasAntes = bandeja.respuestas.sum();
+        long inicio = System.nanoTime();
+        Map<String, Latencias> latencias = enviar(mensajes, semilla);
+        long duracion = System.nanoTime() - inicio;
+        
+        imprimirInforme(latencias, duracion, bandeja.respuestas.sum() - respuestasAntes);
+    }
+    
+    private void imprimirInforme(Map<String, Latencias> latencias, long duracionNanos, long respuestas) {
+        double segundos = duracionNanos / 1e9;
+        System.out.println();
+        System.out.println("📊 **INFORME DE CARGA**");
+        System.out.printf("Usuarios: %d · Servidores: %d · Canales: %d · Tareas iniciales por usuario: %d · Persistencia: %s%n",
+                usuarios, servidores, (long) servidores * canales, tareasPorUsuario, persistencia ? "archivo" : "memoria");
+        System.out.printf("Mensajes: %d en %.2f s → %.0f mensajes/s con %d hilo(s)%n",
+                mensajes, segundos, mensajes / segundos, hilos);
+        System.out.printf("Respuestas capturadas: %d (%d paginadas, %.1f MB de texto, %d canales con respuesta)%n",
+                respuestas, bandeja.paginadas.sum(), bandeja.caracteres.sum() / 1e6, bandeja.ultimaPorCanal.size());
+        System.out.println();
+        System.out.printf("%-26s %9s %8s %10s %10s %10s %10s%n",
+                "Mensaje", "Cantidad", "Errores", "p50 ms", "p99 ms", "p999 ms", "máx ms");
+        for (Map.Entry<String, Latencias> entrada : latencias.entrySet()) {
+            Latencias l = entrada.getValue();
+            if (l.cantidad == 0) {
+                continue;
+            }
+            Arrays.sort(l.valores, 0, l.cantidad);
+            System.out.printf("%-26s %9d %8d %10.3f %10.3f %10.3f %10.3f%n",
+                    entrada.getKey(), l.cantidad, l.errores,
+                    l.percentil(0.50) / 1e6, l.percentil(0.99) / 1e6, l.percentil(0.999) / 1e6,
+                    l.valores[l.cantidad - 1] / 1e6);
+        }
+    }
+    
+    // ========================
+    // MÉTODOS AUXILIARES
+    // ========================
+    
+    /**
+     * Trabajo sobre un tramo [desde, hasta) de los elementos
+     */
+    private interface Tramo<R> {
+        R procesar(int hilo, int desde, int hasta) throws Exception;
+    }
+    
+    /**
+     * Reparte elementos entre los hilos y espera a que todos terminen
+     */
+    private <R> List<R> ejecutarEnHilos(int elementos, Tramo<R> tramo) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<Future<R>> futuros = new ArrayList<>();
+            int porHilo = (elementos + hilos - 1) / hilos;
+            for (int h = 0; h < hilos; h++) {
+                int hilo = h;
+                int desde = Math.min(elementos, h * porHilo);
+                int hasta = Math.min(elementos, desde + porHilo);
+                futuros.add(ejecutor.submit(() -> tramo.procesar(hilo, desde, hasta)));
+            }
+            List<R> resultados = new ArrayList<>();
+            for (Future<R> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } finally {
+            ejecutor.shutdown();
+        }
+    }
+    
+    private Plantilla elegir(int valor) {
+        for (Plantilla plantilla : MEZCLA) {
+            valor -= plantilla.peso;
+            if (valor < 0) {
+                return plantilla;
+            }
+        }
+        return MEZCLA.get(MEZCLA.size() - 1);
+    }
+    
+    private static String idServidor(int servidor) {
+        return String.valueOf(ID_BASE_SERVIDOR + servidor);
+    }
+    
+    private String idCanal(int servidor, int canal) {
+        return String.valueOf(ID_BASE_CANAL + (long) servidor * canales + canal);
+    }
+    
+    private static String idUsuario(int usuario) {
+        return String.valueOf(ID_BASE_USUARIO + usuario);
+    }
+    
+    private static int entero(Map<String, String> opciones, String clave, int porDefecto) {
+        String valor = opciones.get(clave);
+        return valor == null ? porDefecto : Integer.parseInt(valor);
+    }
+    
+    /**
+     * FUNCIÓN PRINCIPAL (main)
+     * 
+     * @param args Opciones --clave=valor
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opciones = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("❌ Opción inválida: " + arg + " (se espera --clave=valor)");
+                System.exit(1);
+            }
+            opciones.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new GeneradorCarga(opciones).ejecutar();
+    }
+}
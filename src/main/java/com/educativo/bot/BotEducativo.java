@@ -1,25 +1,51 @@
 package com.educativo.bot;
 
-import java.util.HashMap;
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
-import com.educativo.bot.comandos.ComandoDocente;
-import com.educativo.bot.comandos.ComandoMaterias;
-import com.educativo.bot.comandos.ComandoSistema;
-import com.educativo.bot.comandos.ComandoTareas;
 import com.educativo.bot.interfaces.Comando;
-import com.educativo.bot.interfaces.GestorDatos;
+import com.educativo.bot.interfaces.RespuestaPaginada;
+import com.educativo.bot.servicios.AgrupadorBienvenidas;
+import com.educativo.bot.servicios.AlmacenTareas;
+import com.educativo.bot.servicios.GestorCanales;
 import com.educativo.bot.servicios.GestorDatosArchivo;
+import com.educativo.bot.servicios.InstantaneaParticion;
+import com.educativo.bot.servicios.ParticionServidor;
+import com.educativo.bot.servicios.ParticionesServidor;
+import com.educativo.bot.servicios.PoolEventos;
+import com.educativo.bot.servicios.ProgramadorRecordatorios;
+import com.educativo.bot.servicios.ResolutorPermisos;
+import com.educativo.bot.utils.FormateadorMensajes;
 
 import net.dv8tion.jda.api.JDA;
-import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.entities.Activity;
+import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
 import net.dv8tion.jda.api.events.guild.member.GuildMemberJoinEvent;
+import net.dv8tion.jda.api.events.interaction.component.ButtonInteractionEvent;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.components.buttons.Button;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder;
+import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.sharding.ThreadPoolProvider;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
 
 /**
  * CLASE PRINCIPAL DEL BOT EDUCATIVO
@@ -40,42 +66,147 @@ public class BotEducativo extends ListenerAdapter {
     
     // ENCAPSULAMIENTO: Atributos privados
     private static final String VERSION = "1.0.0";
-    private static final String PREFIJO_COMANDO = "!";
+    private static final long UMBRAL_COMANDO_LENTO_MS = 500;  // Avisar si un comando tarda más
+    private static final int MAX_RESPUESTAS_CACHEADAS = 256;  // Tamaño máximo de la caché de respuestas
+    private static final long INTERVALO_VENCIMIENTOS_SEG = 60; // Cada cuánto se detectan tareas vencidas
+    private static final long INTERVALO_INSTANTANEAS_SEG = 300; // Cada cuánto se guardan datos e instantáneas (punto de control)
+    private static final List<Duration> ANTICIPACIONES_RECORDATORIO =  // Cuánto antes de cada vencimiento avisar
+            List.of(Duration.ofHours(24), Duration.ofHours(1));
+    private static final long TICK_RECORDATORIOS_MS = 60 * 1000L;      // Resolución de la rueda de recordatorios
+    private static final int RANURAS_RECORDATORIOS = 1440;            // Una vuelta de la rueda = 1 día
+    private static final int RECORDATORIOS_POR_SEGUNDO = 5;           // Ritmo máximo de mensajes directos
+    private static final String PREFIJO_BOTON_PAGINA = "pagina:";     // ID de botones: pagina:<comando>:<usuario>:<listado>:<número>
+    private static final int LARGO_MAXIMO_MENSAJE = 2000;             // Límite de Discord por mensaje
+    private static final String DIRECTORIO_DATOS = "datos/servidores"; // Un archivo de datos por servidor
+    private static final long VENTANA_BIENVENIDAS_MS = 5000;          // Ingresos dentro de esta ventana reciben una sola bienvenida
+    private static final int HILOS_PRECARGA = Math.max(2, Runtime.getRuntime().availableProcessors()); // Particiones cargadas a la vez al iniciar
+    private static final boolean CACHE_LIVIANA =                      // true = caché liviana de JDA; false = caché por defecto
+            Boolean.parseBoolean(System.getProperty("bot.cacheLiviana", "true"));
+    private static final long PLAZO_CIERRE_SEG =                      // Tiempo máximo para vaciar colas al apagar
+            Long.getLong("bot.plazoCierreSeg", 15);
     
-    private final JDA jda;                                    // Instancia de la API de Discord
-    private final Map<String, Comando> comandos;             // Mapa de comandos disponibles
-    private final GestorDatos gestorDatos;                   // Sistema de persistencia de datos
+    private final ShardManager shardManager;                 // Conexiones (shards) con Discord
+    private volatile int totalShards = 1;                    // Total de shards del bot (se conoce al conectar)
+    private final ParticionesServidor particiones;           // Datos, índices y comandos de cada servidor
+    private final ResolutorPermisos resolutorPermisos;       // Permisos por roles, cacheados por servidor
+    private final GestorCanales gestorCanales;               // Canal de bienvenida cacheado por servidor
+    private final ProcesadorComandos procesador;             // Camino de cada mensaje hasta su respuesta (sin JDA)
+    private final ScheduledExecutorService tareasProgramadas; // Trabajos periódicos en segundo plano
+    private final ScheduledExecutorService puntosControl;    // Puntos de control, en su propio hilo (escriben a disco)
+    private final ProgramadorRecordatorios recordatorios;    // Avisos antes de cada vencimiento
+    private final AgrupadorBienvenidas bienvenidas;          // Una bienvenida por ráfaga de ingresos
+    private final CompletableFuture<Void> precarga;          // Carga de particiones guardadas, en paralelo con la conexión
+    private final Map<Integer, PoolEventos> poolsEventos = new ConcurrentHashMap<>(); // Hilo de eventos de cada shard
+    private volatile boolean cerrando;                       // true desde que empieza el apagado
     private final long tiempoInicio;                         // Timestamp de inicio del bot
     
+    /**
+     * Constructor del bot con la cantidad de shards que recomienda Discord
+     * 
+     * @param token Token del bot de Discord
+     * @throws Exception Si hay error al conectar con Discord
+     */
+    public BotEducativo(String token) throws Exception {
+        this(token, -1, -1, -1);
+    }
+    
     /**
      * Constructor del bot
      * Demuestra ENCAPSULAMIENTO al inicializar todos los componentes privados
      * 
+     * SHARDING: cada proceso puede atender solo un rango de shards, así el
+     * bot se reparte entre varias máquinas cuando crece la cantidad de servidores.
+     * 
      * @param token Token del bot de Discord
+     * @param totalShards Total de shards del bot (-1 = lo que recomiende Discord)
+     * @param primerShard Primer shard que atiende este proceso (-1 = todos)
+     * @param ultimoShard Último shard que atiende este proceso (inclusive)
      * @throws Exception Si hay error al conectar con Discord
      */
-    public BotEducativo(String token) throws Exception {
+    public BotEducativo(String token, int totalShards, int primerShard, int ultimoShard) throws Exception {
         this.tiempoInicio = System.currentTimeMillis();
-        this.comandos = new HashMap<>();
-        this.gestorDatos = new GestorDatosArchivo("datos/bot_educativo.json");
+        if (totalShards > 0) {
+            this.totalShards = totalShards;
+        }
         
-        // Configurar e inicializar JDA (Java Discord API)
-        this.jda = JDABuilder.createDefault(token)
+        long inicioFase = System.nanoTime();
+        this.resolutorPermisos = new ResolutorPermisos();
+        this.gestorCanales = new GestorCanales();
+        this.tareasProgramadas = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "bot-programadas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.puntosControl = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "bot-puntos-control");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.recordatorios = new ProgramadorRecordatorios(ANTICIPACIONES_RECORDATORIO,
+                TICK_RECORDATORIOS_MS, RANURAS_RECORDATORIOS, RECORDATORIOS_POR_SEGUNDO, this::enviarMensajeDirecto);
+        this.particiones = new ParticionesServidor(this::crearParticion);
+        this.procesador = new ProcesadorComandos(particiones,
+                ProcesadorComandos.configurarInterceptores(UMBRAL_COMANDO_LENTO_MS));
+        this.bienvenidas = new AgrupadorBienvenidas(tareasProgramadas, VENTANA_BIENVENIDAS_MS, this::enviarBienvenida);
+        programarVencimientos();
+        programarPuntosControl();
+        recordatorios.iniciar(tareasProgramadas);
+        registrarFase("Servicios e interceptores", inicioFase);
+        
+        // INICIO EN PARALELO: cargar datos, índices y comandos de cada servidor
+        // mientras se hace el handshake con el gateway de Discord
+        this.precarga = precargarParticiones();
+        
+        // Configurar e inicializar los shards de JDA (Java Discord API)
+        long inicioConexion = System.nanoTime();
+        DefaultShardManagerBuilder constructor = DefaultShardManagerBuilder.createDefault(token)
                 .setActivity(Activity.playing("Ayudando a estudiar | !ayuda"))
                 .enableIntents(GatewayIntent.MESSAGE_CONTENT, GatewayIntent.GUILD_MEMBERS)
-                .addEventListeners(this)
-                .build();
+                .setEventPoolProvider(crearPoolEventos())
+                .addEventListeners(this, resolutorPermisos, gestorCanales)
+                .setShardsTotal(totalShards);
+        if (CACHE_LIVIANA) {
+            configurarCacheLiviana(constructor);
+        }
+        System.out.println("🧠 Modo de caché: " + (CACHE_LIVIANA ? "liviana" : "por defecto de JDA") +
+                           " (bot.cacheLiviana=" + CACHE_LIVIANA + ")");
+        if (primerShard >= 0) {
+            constructor.setShards(primerShard, ultimoShard);
+        }
+        this.shardManager = constructor.build();
         
-        // Registrar comandos usando POLIMORFISMO
-        registrarComandos();
+        // Esperar a que cada shard esté listo (cada uno carga sus particiones en onReady)
+        for (JDA shard : shardManager.getShards()) {
+            shard.awaitReady();
+        }
+        registrarFase("Conexión con el gateway", inicioConexion);
         
-        // Esperar a que el bot esté listo
-        jda.awaitReady();
+        precarga.join();
+        registrarFase("Inicio total", inicioFase);
         
         System.out.println("🤖 Bot Educativo v" + VERSION + " iniciado correctamente!");
         imprimirEstadisticasInicio();
     }
     
+    /**
+     * Caché liviana (propiedad bot.cacheLiviana, activa por defecto)
+     * El bot solo usa el miembro que viene en cada evento, canales y roles;
+     * a los usuarios se los busca por REST cuando hace falta. Con
+     * -Dbot.cacheLiviana=false se usa la caché por defecto de JDA.
+     * 
+     * @param constructor Constructor de shards a configurar
+     */
+    private static void configurarCacheLiviana(DefaultShardManagerBuilder constructor) {
+        constructor.disableIntents(GatewayIntent.GUILD_VOICE_STATES, GatewayIntent.GUILD_EMOJIS_AND_STICKERS,
+                        GatewayIntent.SCHEDULED_EVENTS, GatewayIntent.GUILD_MESSAGE_TYPING,
+                        GatewayIntent.DIRECT_MESSAGE_TYPING)
+                .setMemberCachePolicy(MemberCachePolicy.NONE)
+                .setChunkingFilter(ChunkingFilter.NONE)
+                .disableCache(CacheFlag.VOICE_STATE, CacheFlag.EMOJI, CacheFlag.STICKER, CacheFlag.SCHEDULED_EVENTS,
+                        CacheFlag.ACTIVITY, CacheFlag.CLIENT_STATUS, CacheFlag.ONLINE_STATUS,
+                        CacheFlag.MEMBER_OVERRIDES, CacheFlag.ROLE_TAGS, CacheFlag.FORUM_TAGS);
+    }
+    
     /**
      * HERENCIA: Sobrescribimos el método de ListenerAdapter
      * POLIMORFISMO: Este método será llamado polimórficamente por JDA
@@ -93,7 +224,7 @@ public class BotEducativo extends ListenerAdapter {
         String contenido = mensaje.getContentRaw();
         
         // Verificar si es un comando (empieza con el prefijo)
-        if (!contenido.startsWith(PREFIJO_COMANDO)) {
+        if (!contenido.startsWith(ProcesadorComandos.PREFIJO_COMANDO)) {
             return;
         }
         
@@ -101,6 +232,29 @@ public class BotEducativo extends ListenerAdapter {
         procesarComando(event, contenido);
     }
     
+    /**
+     * HERENCIA: Sobrescribimos el método de ListenerAdapter
+     * POLIMORFISMO: JDA lo llama una vez por shard, cuando termina de conectarse
+     * 
+     * Carga las particiones de los servidores de ese shard, así cada shard
+     * queda listo sin esperar a los demás (los servidores nuevos se cargan
+     * al primer uso).
+     * 
+     * @param event Evento de shard listo
+     */
+    @Override
+    public void onReady(ReadyEvent event) {
+        JDA shard = event.getJDA();
+        totalShards = shard.getShardInfo().getShardTotal();
+        
+        for (Guild servidor : shard.getGuilds()) {
+            particiones.obtener(servidor.getId()).asignarShard(shard.getShardInfo().getShardId());
+        }
+        System.out.println("✅ Shard " + shard.getShardInfo().getShardString() + " listo: " +
+                           shard.getGuilds().size() + " servidor(es), " +
+                           particiones.contarDeShard(shard.getShardInfo().getShardId()) + " partición(es) cargada(s)");
+    }
+    
     /**
      * HERENCIA: Sobrescribimos el método de ListenerAdapter
      * POLIMORFISMO: Este método será llamado polimórficamente por JDA cuando un miembro se une
@@ -109,42 +263,141 @@ public class BotEducativo extends ListenerAdapter {
      */
     @Override
     public void onGuildMemberJoin(GuildMemberJoinEvent event) {
+        // Las bienvenidas se agrupan: una ráfaga de ingresos recibe un solo mensaje
+        bienvenidas.registrarIngreso(event.getGuild().getId(), event.getUser().getId());
+        System.out.println("👋 Nuevo usuario: " + event.getUser().getName() + " - Bienvenida en espera");
+    }
+    
+    /**
+     * MÉTODOS: Envía una bienvenida a todos los que ingresaron en una ráfaga
+     * El canal de bienvenida sale de la caché de GestorCanales
+     * 
+     * @param servidorId ID del servidor
+     * @param usuariosIds Usuarios que ingresaron
+     */
+    private void enviarBienvenida(String servidorId, List<String> usuariosIds) {
+        Guild servidor = shardManager.getGuildById(servidorId);
+        TextChannel canalBienvenida = servidor == null ? null : gestorCanales.obtenerCanalBienvenida(servidor);
+        if (canalBienvenida == null) {
+            return;
+        }
+        
+        String saludo = usuariosIds.size() == 1 ? "¡Bienvenido " : "¡Bienvenidos ";
+        String presentacion = "!**\n\n" +
+            "🎓 Te damos la bienvenida al **Bot Educativo**, tu asistente para organizar tus estudios.\n\n" +
+            "🌟 **Comienza ahora:**\n" +
+            "• `!sistema ayuda` - Descubre todos los comandos\n" +
+            "• `!materia crear` - Crea tu primera materia\n" +
+            "• `!sistema puntos` - Consulta tus puntos\n\n" +
+            "💪 ¡Estamos aquí para ayudarte a alcanzar tus metas académicas!";
+        
+        // Mencionar a todos: la primera parte lleva la presentación y, si las
+        // menciones no entran en un mensaje, siguen en los mensajes necesarios
+        // (ninguna mención se corta ni se omite)
+        List<String> mensajes = new ArrayList<>();
+        String inicio = "👋 **" + saludo;
+        String cierre = presentacion;
+        StringBuilder actual = new StringBuilder(inicio);
+        boolean vacio = true;
+        for (int i = 0; i < usuariosIds.size(); i++) {
+            String separador = vacio ? "" : (i == usuariosIds.size() - 1 ? " y " : ", ");
+            String mencion = "<@" + usuariosIds.get(i) + ">";
+            if (!vacio && actual.length() + separador.length() + mencion.length() + cierre.length() > LARGO_MAXIMO_MENSAJE) {
+                mensajes.add(actual.append(cierre).toString());
+                inicio = "👋 **¡Bienvenidos también ";
+                cierre = "!**";
+                actual = new StringBuilder(inicio);
+                separador = "";
+            }
+            actual.append(separador).append(mencion);
+            vacio = false;
+        }
+        mensajes.add(actual.append(cierre).toString());
+        
+        for (String mensajeBienvenida : mensajes) {
+            canalBienvenida.sendMessage(mensajeBienvenida).queue(null,
+                    error -> System.err.println("❌ Error al enviar mensaje de bienvenida: " + error.getMessage()));
+        }
+        System.out.println("👋 Bienvenida enviada a " + usuariosIds.size() + " usuario(s) en " + servidor.getName());
+    }
+    
+    /**
+     * HERENCIA: Sobrescribimos el método de ListenerAdapter
+     * POLIMORFISMO: Se llama cuando alguien pulsa un botón de un mensaje del bot
+     * 
+     * Solo atiende los botones de paginación: pide al comando únicamente la
+     * página solicitada y edita el mismo mensaje, sin enviar mensajes nuevos.
+     * Toda pulsación de un botón de paginación recibe respuesta (la página o
+     * un error efímero); si no, Discord muestra "This interaction failed".
+     * 
+     * @param event Evento del botón pulsado
+     */
+    @Override
+    public void onButtonInteraction(ButtonInteractionEvent event) {
+        String botonId = event.getComponentId();
+        if (!botonId.startsWith(PREFIJO_BOTON_PAGINA)) {
+            return;
+        }
         try {
-            // Buscar el canal de bienvenida
-            TextChannel canalBienvenida = event.getGuild().getTextChannelsByName("bienvenida", true)
-                    .stream()
-                    .findFirst()
-                    .orElse(null);
+            String[] partes = botonId.split(":");
+            String servidorId = event.isFromGuild() ? event.getGuild().getId() : null;
+            Comando comando = partes.length == 5 ? particiones.obtener(servidorId).getComando(partes[1]) : null;
+            if (!(comando instanceof RespuestaPaginada)) {
+                responderErrorBoton(event, "❌ Este botón ya no es válido.");
+                return;
+            }
             
-            if (canalBienvenida == null) {
-                // Si no existe el canal "bienvenida", usar el canal general
-                canalBienvenida = event.getGuild().getTextChannelsByName("general", true)
-                        .stream()
-                        .findFirst()
-                        .orElse(null);
+            String nombreComando = partes[1];
+            String usuarioId = partes[2];
+            String listadoId = partes[3];
+            if (!event.getUser().getId().equals(usuarioId)) {
+                event.reply("❌ Este listado es de otro usuario. Usa `!" + nombreComando + " listar` para ver el tuyo.")
+                        .setEphemeral(true).queue();
+                return;
             }
             
-            if (canalBienvenida != null) {
-                // Crear mensaje de bienvenida simple
-                String mensajeBienvenida = "👋 **¡Bienvenido " + "<@" + event.getUser().getId() + ">!" + "**\n\n" +
-                    "🎓 Te damos la bienvenida al **Bot Educativo**, tu asistente para organizar tus estudios.\n\n" +
-                    "🌟 **Comienza ahora:**\n" +
-                    "• `!sistema ayuda` - Descubre todos los comandos\n" +
-                    "• `!materia crear` - Crea tu primera materia\n" +
-                    "• `!sistema puntos` - Consulta tus puntos\n\n" +
-                    "💪 ¡Estamos aquí para ayudarte a alcanzar tus metas académicas!";
-                
-                // Enviar mensaje al canal
-                canalBienvenida.sendMessage(mensajeBienvenida).queue();
-                
-                System.out.println("👋 Nuevo usuario: " + event.getUser().getName() + " - Mensaje de bienvenida enviado");
+            RespuestaPaginada paginada = (RespuestaPaginada) comando;
+            int pagina;
+            try {
+                pagina = Integer.parseInt(partes[4]);
+            } catch (NumberFormatException e) {
+                responderErrorBoton(event, "❌ Este botón ya no es válido.");
+                return;
             }
+            String texto = paginada.renderizarPagina(usuarioId, listadoId, pagina);
+            int paginas = paginada.getPaginas(usuarioId, listadoId);
+            if (texto == null || paginas == 0) {
+                event.reply("❌ Este listado expiró o abriste uno más nuevo. Usa `!" + nombreComando + " listar` otra vez.")
+                        .setEphemeral(true).queue();
+                return;
+            }
+            
+            int paginaMostrada = Math.max(1, Math.min(pagina, paginas));
+            event.editMessage(limitarLargo(texto))
+                    .setActionRow(botonesPagina(nombreComando, usuarioId, listadoId, paginaMostrada, paginas))
+                    .queue();
             
         } catch (Exception e) {
-            System.err.println("❌ Error al enviar mensaje de bienvenida: " + e.getMessage());
+            System.err.println("❌ Error al cambiar de página: " + e.getMessage());
+            responderErrorBoton(event, "❌ Error interno del bot. Intenta de nuevo más tarde.");
         }
     }
     
+    /**
+     * MÉTODOS: Responde a un botón con un error visible solo para quien lo pulsó
+     * (si la interacción aún no fue respondida)
+     * 
+     * @param event Evento del botón pulsado
+     * @param mensaje Mensaje de error
+     */
+    private void responderErrorBoton(ButtonInteractionEvent event, String mensaje) {
+        if (event.isAcknowledged()) {
+            return;
+        }
+        event.reply(mensaje).setEphemeral(true).queue(null,
+                error -> System.err.println("❌ Error al responder al botón: " + error.getMessage()));
+    }
+    
     /**
      * MÉTODOS: Procesa un comando recibido
      * Demuestra encapsulamiento al abstraer la lógica de procesamiento
@@ -154,44 +407,27 @@ public class BotEducativo extends ListenerAdapter {
      */
     private void procesarComando(MessageReceivedEvent event, String contenidoMensaje) {
         try {
-            // Extraer comando y argumentos
-            String[] partes = contenidoMensaje.substring(PREFIJO_COMANDO.length()).trim().split("\\s+");
-            
-            if (partes.length == 0 || partes[0].isEmpty()) {
-                return;
-            }
-            
-            String nombreComando = partes[0].toLowerCase();
-            String[] argumentos = new String[partes.length - 1];
-            System.arraycopy(partes, 1, argumentos, 0, argumentos.length);
-            
-            // POLIMORFISMO: Buscar y ejecutar comando
-            Comando comando = comandos.get(nombreComando);
-            
-            if (comando == null) {
-                enviarMensaje(event, "❌ Comando no encontrado. Usa `!sistema ayuda` para ver comandos disponibles.");
+            // El procesamiento no depende de Discord: aquí solo se extraen los datos del evento
+            // (un comando que llega durante el inicio espera solo a la partición de su
+            // servidor si la precarga la está creando, no a la precarga completa)
+            String servidorId = event.isFromGuild() ? event.getGuild().getId() : null;
+            long permisos = resolutorPermisos.obtenerPermisos(event.getMember());
+            ProcesadorComandos.Respuesta respuesta = procesador.procesar(contenidoMensaje,
+                    event.getAuthor().getId(), event.getChannel().getId(), servidorId, permisos);
+            if (respuesta == null) {
                 return;
             }
             
-            // Verificar permisos usando POLIMORFISMO
-            String usuarioId = event.getAuthor().getId();
-            if (!comando.tienePermisos(usuarioId)) {
-                enviarMensaje(event, "❌ No tienes permisos para ejecutar este comando.");
-                return;
-            }
-            
-            // Ejecutar comando usando POLIMORFISMO
-            String canalId = event.getChannel().getId();
-            String respuesta = comando.ejecutar(argumentos, canalId, usuarioId);
-            
-            // Enviar respuesta
-            if (respuesta != null && !respuesta.trim().isEmpty()) {
-                enviarMensaje(event, respuesta);
+            // Enviar respuesta (los listados largos van de a una página, con botones)
+            if (respuesta.getListadoId() != null) {
+                event.getChannel().sendMessage(limitarLargo(respuesta.getTexto()))
+                        .setActionRow(botonesPagina(respuesta.getNombreComando(), event.getAuthor().getId(),
+                                respuesta.getListadoId(), 1, respuesta.getPaginas()))
+                        .queue();
+            } else {
+                enviarMensaje(event, respuesta.getTexto());
             }
             
-            // Registrar uso del comando
-            registrarUsoComando(nombreComando, usuarioId);
-            
         } catch (Exception e) {
             System.err.println("Error procesando comando: " + e.getMessage());
             enviarMensaje(event, "❌ Error interno del bot. Intenta de nuevo más tarde.");
@@ -199,28 +435,74 @@ public class BotEducativo extends ListenerAdapter {
     }
     
     /**
-     * MÉTODOS: Registra todos los comandos disponibles
-     * Demuestra POLIMORFISMO al tratar todos los comandos como objetos Comando
+     * MÉTODOS: Carga en paralelo las particiones que tienen datos guardados
+     * Corre en hilos propios mientras los shards se conectan; las particiones
+     * de servidores sin datos se crean después, al primer uso
+     * 
+     * @return Tarea que termina cuando todas las particiones están cargadas
      */
-    private void registrarComandos() {
-        // Crear instancias de comandos unificados por funcionalidad - POLIMORFISMO en acción
-        Comando[] comandosDisponibles = {
-            new ComandoMaterias(),        // Comandos de gestión de materias académicas
-            new ComandoTareas(),          // Comandos de gestión de tareas y asignaciones
-            new ComandoSistema(), 
-            new ComandoDocente(),         // Comandos de gestión de docentes
-            // Aquí podrías añadir más grupos de comandos que implementen la interfaz Comando
-        };
-
-        // Registrar cada comando usando POLIMORFISMO
-        for (Comando comando : comandosDisponibles) {
-            comandos.put(comando.getNombre(), comando);
-            System.out.println("✅ Grupo de comandos registrado: " + comando.getNombre());
+    private CompletableFuture<Void> precargarParticiones() {
+        long inicio = System.nanoTime();
+        File[] archivos = new File(DIRECTORIO_DATOS).listFiles((dir, nombre) -> nombre.endsWith(".json"));
+        if (archivos == null || archivos.length == 0) {
+            registrarFase("Precarga de particiones (sin datos guardados)", inicio);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        ExecutorService hilosPrecarga = Executors.newFixedThreadPool(Math.min(HILOS_PRECARGA, archivos.length), r -> {
+            Thread hilo = new Thread(r, "bot-precarga");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        List<CompletableFuture<Void>> cargas = new ArrayList<>();
+        for (File archivo : archivos) {
+            String servidorId = archivo.getName().substring(0, archivo.getName().length() - ".json".length());
+            cargas.add(CompletableFuture.runAsync(() -> particiones.obtener(servidorId), hilosPrecarga));
         }
+        
+        return CompletableFuture.allOf(cargas.toArray(new CompletableFuture[0]))
+                .whenComplete((resultado, error) -> {
+                    hilosPrecarga.shutdown();
+                    if (error != null) {
+                        System.err.println("❌ Error en la precarga de particiones: " + error.getMessage());
+                    }
+                    registrarFase("Precarga de " + archivos.length + " partición(es)", inicio);
+                })
+                .exceptionally(error -> null);
+    }
+    
+    /**
+     * Informa cuánto tardó una fase del inicio
+     * 
+     * @param fase Nombre de la fase
+     * @param inicioNanos Momento en que empezó (System.nanoTime)
+     */
+    private static void registrarFase(String fase, long inicioNanos) {
+        System.out.println("⏱️ " + fase + ": " + (System.nanoTime() - inicioNanos) / 1_000_000 + " ms");
+    }
+    
+    /**
+     * MÉTODOS: Crea la partición de un servidor la primera vez que se usa
+     * Cada servidor tiene su propio archivo de datos, sus índices y sus comandos
+     * 
+     * @param servidorId ID del servidor (o ParticionServidor.ID_DIRECTOS)
+     * @return Partición lista para usar
+     */
+    private ParticionServidor crearParticion(String servidorId) {
+        String rutaBase = DIRECTORIO_DATOS + "/" + servidorId;
+        ParticionServidor particion = new ParticionServidor(servidorId, calcularShard(servidorId, totalShards),
+                new GestorDatosArchivo(rutaBase + ".json"), new InstantaneaParticion(rutaBase + ".indices"),
+                MAX_RESPUESTAS_CACHEADAS);
+        particion.cargarInstantanea();
+        ProcesadorComandos.registrarComandos(particion, recordatorios);
+        
+        AlmacenTareas tareas = particion.getTareas();
+        recordatorios.programarTodas(tareas, tareas.getProximasHasta(LocalDateTime.MAX));
+        
+        System.out.println("🏛️ Partición de datos lista: " + servidorId);
+        return particion;
     }
     
-
-
     /**
      * MÉTODOS: Envía un mensaje al canal
      * Encapsula la lógica de envío de mensajes
@@ -231,7 +513,7 @@ public class BotEducativo extends ListenerAdapter {
     private void enviarMensaje(MessageReceivedEvent event, String contenido) {
         // Dividir mensajes largos si es necesario
         if (contenido.length() > 2000) {
-            String[] partes = dividirMensaje(contenido, 2000);
+            String[] partes = FormateadorMensajes.dividirMensaje(contenido, 2000);
             for (String parte : partes) {
                 event.getChannel().sendMessage(parte).queue();
             }
@@ -241,55 +523,78 @@ public class BotEducativo extends ListenerAdapter {
     }
     
     /**
-     * MÉTODOS: Registra el uso de un comando para estadísticas
+     * MÉTODOS: Un hilo de eventos por shard
+     * Los eventos de un shard se procesan en orden, y un comando lento solo
+     * demora a los servidores de su propio shard
      * 
-     * @param nombreComando Nombre del comando usado
-     * @param usuarioId ID del usuario que lo usó
+     * Los pools quedan registrados y no los cierra JDA: al apagar, cerrar()
+     * corta la entrada de eventos nuevos y deja que terminen los comandos
+     * que ya estaban en cola (ver PoolEventos).
+     * 
+     * @return Proveedor de pools para el ShardManager
      */
-    private void registrarUsoComando(String nombreComando, String usuarioId) {
-        try {
-            // Obtener estadísticas actuales
-            String clave = "stats_comando_" + nombreComando;
-            Integer usos = (Integer) gestorDatos.obtener(clave);
-            if (usos == null) {
-                usos = 0;
+    private ThreadPoolProvider<ExecutorService> crearPoolEventos() {
+        return new ThreadPoolProvider<ExecutorService>() {
+            @Override
+            public ExecutorService provide(int shardId) {
+                return poolsEventos.computeIfAbsent(shardId,
+                        id -> new PoolEventos("bot-eventos-shard-" + id, () -> cerrando));
             }
             
-            // Incrementar y guardar
-            gestorDatos.guardar(clave, usos + 1);
-            
-            // Registrar última actividad del usuario
-            gestorDatos.guardar("ultima_actividad_" + usuarioId, System.currentTimeMillis());
-            
-        } catch (Exception e) {
-            System.err.println("Error registrando uso de comando: " + e.getMessage());
-        }
+            @Override
+            public boolean shouldShutdownAutomatically(int shardId) {
+                return false;
+            }
+        };
     }
     
     /**
-     * FUNCIONES: Función estática para dividir mensajes largos
-     * Demuestra el concepto de FUNCIONES (métodos estáticos utilitarios)
+     * FUNCIONES: Shard dueño de un servidor, con la fórmula de Discord
+     * (shard = (id_servidor >> 22) % total_shards)
      * 
-     * @param mensaje Mensaje a dividir
-     * @param tamanioMaximo Tamaño máximo por parte
-     * @return Array de partes del mensaje
+     * @param servidorId ID del servidor (o ParticionServidor.ID_DIRECTOS)
+     * @param totalShards Total de shards del bot
+     * @return Número de shard (los mensajes directos llegan siempre al shard 0)
      */
-    public static String[] dividirMensaje(String mensaje, int tamanioMaximo) {
-        if (mensaje.length() <= tamanioMaximo) {
-            return new String[]{mensaje};
+    public static int calcularShard(String servidorId, int totalShards) {
+        if (ParticionServidor.ID_DIRECTOS.equals(servidorId) || totalShards <= 1) {
+            return 0;
         }
-        
-        // Calcular número de partes necesarias
-        int numPartes = (int) Math.ceil((double) mensaje.length() / tamanioMaximo);
-        String[] partes = new String[numPartes];
-        
-        for (int i = 0; i < numPartes; i++) {
-            int inicio = i * tamanioMaximo;
-            int fin = Math.min(inicio + tamanioMaximo, mensaje.length());
-            partes[i] = mensaje.substring(inicio, fin);
+        return (int) ((Long.parseLong(servidorId) >> 22) % totalShards);
+    }
+    
+    /**
+     * FUNCIONES: Botones de anterior y siguiente para una página de un listado
+     * Cada botón lleva en su ID la página a la que lleva, así el clic no
+     * necesita guardar estado en el bot
+     * 
+     * @param nombreComando Comando que generó el listado
+     * @param usuarioId Dueño del listado
+     * @param listadoId ID del listado
+     * @param pagina Página que se está mostrando
+     * @param paginas Total de páginas
+     * @return Botones para la fila del mensaje
+     */
+    private static List<Button> botonesPagina(String nombreComando, String usuarioId, String listadoId,
+                                              int pagina, int paginas) {
+        String prefijo = PREFIJO_BOTON_PAGINA + nombreComando + ":" + usuarioId + ":" + listadoId + ":";
+        return List.of(
+                Button.secondary(prefijo + (pagina - 1), "◀️ Anterior").withDisabled(pagina <= 1),
+                Button.secondary(prefijo + (pagina + 1), "Siguiente ▶️").withDisabled(pagina >= paginas));
+    }
+    
+    /**
+     * FUNCIONES: Recorta un texto al largo máximo de un mensaje
+     * Las páginas ya son cortas; esto solo cubre tareas con textos enormes
+     * 
+     * @param texto Texto a enviar
+     * @return El mismo texto, o recortado con "…" al final
+     */
+    private static String limitarLargo(String texto) {
+        if (texto.length() <= LARGO_MAXIMO_MENSAJE) {
+            return texto;
         }
-        
-        return partes;
+        return texto.substring(0, LARGO_MAXIMO_MENSAJE - 1) + "…";
     }
     
     /**
@@ -327,10 +632,14 @@ public class BotEducativo extends ListenerAdapter {
         StringBuilder stats = new StringBuilder();
         stats.append("📊 **Estadísticas del Bot Educativo**\n\n");
         stats.append("🕒 Tiempo activo: ").append(formatearTiempo(tiempoActividad)).append("\n");
-        stats.append("⚡ Comandos registrados: ").append(comandos.size()).append("\n");
-        stats.append("🏛️ Servidores conectados: ").append(jda.getGuilds().size()).append("\n");
-        stats.append("👥 Usuarios visibles: ").append(jda.getUsers().size()).append("\n");
-        stats.append("📁 Sistema de datos: ").append(gestorDatos.getClass().getSimpleName()).append("\n");
+        stats.append("🗂️ Particiones de datos: ").append(particiones.getTamanio()).append("\n");
+        stats.append("🔗 Interceptores activos: ").append(procesador.getCadenaInterceptores().getTamanio()).append("\n");
+        stats.append("🧩 Shards activos: ").append(shardManager.getShardsRunning())
+             .append("/").append(shardManager.getShardsTotal()).append("\n");
+        stats.append("🏛️ Servidores conectados: ").append(shardManager.getGuilds().size()).append("\n");
+        stats.append("👥 Usuarios visibles: ").append(shardManager.getUsers().size()).append("\n");
+        stats.append("📁 Sistema de datos: ").append(GestorDatosArchivo.class.getSimpleName())
+             .append(" (").append(DIRECTORIO_DATOS).append(")\n");
         stats.append("🔢 Versión: ").append(VERSION);
         
         return stats.toString();
@@ -341,29 +650,178 @@ public class BotEducativo extends ListenerAdapter {
      */
     private void imprimirEstadisticasInicio() {
         System.out.println("📊 Estadísticas de inicio:");
-        System.out.println("   • Comandos cargados: " + comandos.size());
-        System.out.println("   • Sistema de datos: " + gestorDatos.getClass().getSimpleName());
+        System.out.println("   • Shards: " + shardManager.getShardsRunning() + "/" + shardManager.getShardsTotal());
+        System.out.println("   • Particiones de datos: " + particiones.getTamanio());
+        System.out.println("   • " + resumirCacheMiembros());
+        System.out.println("   • Sistema de datos: " + GestorDatosArchivo.class.getSimpleName() + " (" + DIRECTORIO_DATOS + ")");
+        System.out.println("   • Recordatorios programados: " + recordatorios.getProgramados());
         System.out.println("   • Versión: " + VERSION);
         System.out.println("🚀 ¡Bot listo para ayudar a los estudiantes!");
     }
     
     /**
-     * MÉTODOS: Cierra el bot de manera segura
+     * Resume el modo de caché y su uso de memoria, solo con valores medidos
+     * Para saber cuánto ahorra la caché liviana, comparar el heap en uso
+     * de un inicio con bot.cacheLiviana=true y otro con false
+     * 
+     * @return Línea para el registro de inicio
+     */
+    private String resumirCacheMiembros() {
+        long miembros = 0;
+        long cacheados = 0;
+        for (Guild servidor : shardManager.getGuilds()) {
+            miembros += servidor.getMemberCount();
+            cacheados += servidor.getMemberCache().size();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsadoMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        return String.format("Caché %s: %d de %d miembros en caché · heap en uso: %d MB",
+                             CACHE_LIVIANA ? "liviana" : "por defecto de JDA", cacheados, miembros, heapUsadoMb);
+    }
+    
+    /**
+     * Detecta periódicamente las tareas que acaban de vencer
+     * Solo revisa el frente del índice de vencimientos, así que es barato
+     * aunque haya muchas tareas pendientes
+     */
+    private void programarVencimientos() {
+        tareasProgramadas.scheduleAtFixedRate(() -> {
+            try {
+                int vencidas = 0;
+                for (ParticionServidor particion : particiones.getTodas()) {
+                    vencidas += particion.getTareas().actualizarVencimientos();
+                }
+                if (vencidas > 0) {
+                    System.out.println("⏰ " + vencidas + " tarea(s) pasaron a vencidas");
+                }
+            } catch (Exception e) {
+                System.err.println("❌ Error al actualizar vencimientos: " + e.getMessage());
+            }
+        }, INTERVALO_VENCIMIENTOS_SEG, INTERVALO_VENCIMIENTOS_SEG, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * MÉTODOS: Punto de control periódico
+     * Guarda los datos y las instantáneas de las particiones que cambiaron,
+     * así un corte inesperado pierde como mucho un intervalo.
+     * Corre en su propio hilo: escribir instantáneas grandes no demora los
+     * recordatorios, las bienvenidas ni la revisión de vencimientos
+     */
+    private void programarPuntosControl() {
+        puntosControl.scheduleWithFixedDelay(() -> {
+            try {
+                particiones.sincronizarTodas();
+            } catch (Exception e) {
+                System.err.println("❌ Error en el punto de control: " + e.getMessage());
+            }
+        }, INTERVALO_INSTANTANEAS_SEG, INTERVALO_INSTANTANEAS_SEG, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Envía un mensaje directo a un usuario (usado por los recordatorios)
+     * 
+     * @param usuarioId ID de Discord del destinatario
+     * @param mensaje Contenido del mensaje
+     */
+    private void enviarMensajeDirecto(String usuarioId, String mensaje) {
+        shardManager.retrieveUserById(usuarioId)
+                .flatMap(User::openPrivateChannel)
+                .flatMap(canal -> canal.sendMessage(mensaje))
+                .queue(null, error -> System.err.println("❌ No se pudo enviar recordatorio a " + usuarioId + ": " + error.getMessage()));
+    }
+    
+    /**
+     * MÉTODOS: Cierra el bot de manera segura, con el plazo configurado
+     * (propiedad bot.plazoCierreSeg, 15 segundos por defecto)
      */
     public void cerrar() {
-        System.out.println("🔄 Cerrando Bot Educativo...");
+        cerrar(Duration.ofSeconds(PLAZO_CIERRE_SEG));
+    }
+    
+    /**
+     * MÉTODOS: Cierra el bot de manera segura
+     * 
+     * 1. Deja de aceptar eventos nuevos: desde aquí los pools de eventos los
+     *    descartan al recibirlos (el gateway sigue conectado, pero nada llega
+     *    a los listeners ni a un pool ya terminado).
+     * 2. Espera a que terminen los comandos que ya estaban en cola.
+     * 3. Envía las bienvenidas en espera y guarda los datos e instantáneas,
+     *    antes de lo que es solo de mejor esfuerzo.
+     * 4. Vacía la cola de recordatorios con el plazo que quede y cierra las
+     *    conexiones, dejando salir las respuestas encoladas en JDA.
+     * 
+     * Todo dentro del plazo: lo que no alcanza a terminar se descarta y se informa.
+     * 
+     * @param plazo Tiempo máximo para el cierre completo
+     */
+    public void cerrar(Duration plazo) {
+        System.out.println("🔄 Cerrando Bot Educativo (plazo: " + plazo.getSeconds() + " s)...");
+        long limite = System.nanoTime() + plazo.toNanos();
+        cerrando = true;
+        
+        // Detener trabajos periódicos (las bienvenidas en espera se envían abajo).
+        // Un punto de control en curso no se interrumpe (cortaría una escritura
+        // a disco): termina solo y la sincronización final se turna con él
+        tareasProgramadas.shutdownNow();
+        puntosControl.shutdown();
         
-        // Sincronizar datos pendientes
-        if (gestorDatos != null) {
-            gestorDatos.sincronizar();
+        // Terminar los comandos en cola de cada shard
+        int eventosDescartados = 0;
+        for (PoolEventos pool : poolsEventos.values()) {
+            eventosDescartados += pool.drenar(restanteMs(limite));
+        }
+        
+        // Sincronizar datos pendientes e instantáneas para el próximo inicio,
+        // antes del envío de recordatorios para que no se quede sin plazo
+        int saludados = bienvenidas.enviarTodas();
+        particiones.sincronizarTodas();
+        
+        // Vaciar la cola de recordatorios con lo que quede del plazo
+        int recordatoriosDescartados = recordatorios.drenar(restanteMs(limite));
+        
+        // Cerrar conexión de Discord (JDA termina de enviar lo que tenía encolado)
+        int shardsForzados = 0;
+        shardManager.shutdown();
+        for (JDA shard : shardManager.getShards()) {
+            try {
+                if (!shard.awaitShutdown(restanteMs(limite), TimeUnit.MILLISECONDS)) {
+                    shard.shutdownNow();
+                    shardsForzados++;
+                }
+            } catch (InterruptedException e) {
+                shard.shutdownNow();
+                shardsForzados++;
+                Thread.currentThread().interrupt();
+            }
         }
         
-        // Cerrar conexión de Discord
-        if (jda != null) {
-            jda.shutdown();
+        // Con los shards cerrados ya no llegan eventos: ahora sí se apagan los pools
+        int eventosIgnorados = 0;
+        for (PoolEventos pool : poolsEventos.values()) {
+            pool.shutdown();
+            eventosIgnorados += pool.getDescartados();
         }
         
-        System.out.println("✅ Bot cerrado correctamente");
+        if (eventosIgnorados > 0) {
+            System.out.println("🚫 Eventos recibidos durante el cierre y no atendidos: " + eventosIgnorados);
+        }
+        if (saludados > 0) {
+            System.out.println("👋 Bienvenidas enviadas al cerrar: " + saludados + " usuario(s)");
+        }
+        if (eventosDescartados + recordatoriosDescartados + shardsForzados > 0) {
+            System.err.println("⚠️ Plazo de cierre agotado. Descartado: " + eventosDescartados + " evento(s) sin procesar, " +
+                               recordatoriosDescartados + " recordatorio(s) sin enviar, " +
+                               shardsForzados + " shard(s) cerrado(s) con respuestas pendientes");
+        } else {
+            System.out.println("✅ Bot cerrado correctamente, sin trabajo descartado");
+        }
+    }
+    
+    /**
+     * Milisegundos que quedan hasta un límite (nunca negativo)
+     */
+    private static long restanteMs(long limiteNanos) {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(limiteNanos - System.nanoTime()));
     }
     
     /**
@@ -376,15 +834,25 @@ public class BotEducativo extends ListenerAdapter {
         // Verificar que se proporcione el token
         if (args.length < 1) {
             System.err.println("❌ Error: Debes proporcionar el token del bot como argumento");
-            System.err.println("💡 Uso: java -jar bot-educativo.jar <TOKEN>");
+            System.err.println("💡 Uso: java -jar bot-educativo.jar <TOKEN> [total_shards] [primer-último]");
             System.exit(1);
         }
         
         String token = args[0];
         
         try {
+            // Sharding opcional: total de shards y rango que atiende este proceso
+            int totalShards = args.length > 1 ? Integer.parseInt(args[1]) : -1;
+            int primerShard = -1;
+            int ultimoShard = -1;
+            if (args.length > 2) {
+                String[] rango = args[2].split("-");
+                primerShard = Integer.parseInt(rango[0]);
+                ultimoShard = rango.length > 1 ? Integer.parseInt(rango[1]) : primerShard;
+            }
+            
             // Crear y inicializar el bot
-            BotEducativo bot = new BotEducativo(token);
+            BotEducativo bot = new BotEducativo(token, totalShards, primerShard, ultimoShard);
             
             // Configurar shutdown hook para cerrar limpiamente
             Runtime.getRuntime().addShutdownHook(new Thread(bot::cerrar));
@@ -0,0 +1,209 @@
+package com.educativo.bot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.educativo.bot.comandos.ComandoDocente;
+import com.educativo.bot.comandos.ComandoMaterias;
+import com.educativo.bot.comandos.ComandoSistema;
+import com.educativo.bot.comandos.ComandoTareas;
+import com.educativo.bot.interceptores.CadenaInterceptores;
+import com.educativo.bot.interceptores.ContextoComando;
+import com.educativo.bot.interceptores.InterceptorCache;
+import com.educativo.bot.interceptores.InterceptorErrores;
+import com.educativo.bot.interceptores.InterceptorPermisos;
+import com.educativo.bot.interceptores.InterceptorRegistroUso;
+import com.educativo.bot.interceptores.InterceptorTiempo;
+import com.educativo.bot.interfaces.Comando;
+import com.educativo.bot.interfaces.InterceptorComando;
+import com.educativo.bot.interfaces.RespuestaPaginada;
+import com.educativo.bot.servicios.ParticionServidor;
+import com.educativo.bot.servicios.ParticionesServidor;
+import com.educativo.bot.servicios.ProgramadorRecordatorios;
+import com.educativo.bot.servicios.SesionesVista;
+
+/**
+ * PROCESADOR DE COMANDOS (independiente de Discord)
+ * 
+ * Todo el camino de un mensaje hasta su respuesta, sin depender de JDA:
+ * separar comando y argumentos, buscar el comando en la partición del
+ * servidor, pasar por la cadena de interceptores y decidir si la respuesta
+ * es un listado paginado.
+ * 
+ * BotEducativo lo usa con los datos de cada evento de Discord y se ocupa
+ * solo de enviar la respuesta; el generador de carga lo usa con mensajes
+ * sintéticos, sin conexión.
+ */
+public class ProcesadorComandos {
+    
+    public static final String PREFIJO_COMANDO = "!";
+    
+    private static final int MAX_SESIONES_VISTA = 10_000;     // Listados recordados a la vez
+    private static final long DURACION_SESION_VISTA_MS = 15 * 60 * 1000L; // Vida de cada listado recordado
+    
+    /**
+     * Resultado de procesar un mensaje
+     */
+    public static final class Respuesta {
+        private final String texto;
+        private final String nombreComando;
+        private final String listadoId;
+        private final int paginas;
+        
+        private Respuesta(String texto, String nombreComando, String listadoId, int paginas) {
+            this.texto = texto;
+            this.nombreComando = nombreComando;
+            this.listadoId = listadoId;
+            this.paginas = paginas;
+        }
+        
+        public String getTexto() {
+            return texto;
+        }
+        
+        public String getNombreComando() {
+            return nombreComando;
+        }
+        
+        /**
+         * @return ID del listado si la respuesta es la primera de varias páginas, o null
+         */
+        public String getListadoId() {
+            return listadoId;
+        }
+        
+        public int getPaginas() {
+            return paginas;
+        }
+    }
+    
+    // ENCAPSULAMIENTO: Datos y cadena compartidos por todos los mensajes
+    private final ParticionesServidor particiones;
+    private final CadenaInterceptores cadenaInterceptores;
+    
+    /**
+     * @param particiones Particiones de datos (y comandos) de cada servidor
+     * @param cadenaInterceptores Interceptores alrededor de cada comando
+     */
+    public ProcesadorComandos(ParticionesServidor particiones, CadenaInterceptores cadenaInterceptores) {
+        this.particiones = particiones;
+        this.cadenaInterceptores = cadenaInterceptores;
+    }
+    
+    /**
+     * MÉTODOS: Procesa un mensaje que empieza con el prefijo de comando
+     * 
+     * @param contenidoMensaje Mensaje completo, con el prefijo
+     * @param usuarioId ID del autor
+     * @param canalId ID del canal
+     * @param servidorId ID del servidor, o null si es un mensaje directo
+     * @param permisos Máscara de permisos del autor ya resuelta
+     * @return La respuesta a enviar, o null si no hay nada que responder
+     */
+    public Respuesta procesar(String contenidoMensaje, String usuarioId, String canalId,
+                              String servidorId, long permisos) {
+        try {
+            // Extraer comando y argumentos
+            String[] partes = parsearComando(contenidoMensaje);
+            if (partes == null) {
+                return null;
+            }
+            
+            String nombreComando = partes[0];
+            String[] argumentos = new String[partes.length - 1];
+            System.arraycopy(partes, 1, argumentos, 0, argumentos.length);
+            
+            // POLIMORFISMO: Buscar y ejecutar comando en la partición del servidor
+            ParticionServidor particion = particiones.obtener(servidorId);
+            Comando comando = particion.getComando(nombreComando);
+            
+            if (comando == null) {
+                return new Respuesta("❌ Comando no encontrado. Usa `!sistema ayuda` para ver comandos disponibles.",
+                        nombreComando, null, 0);
+            }
+            
+            // Ejecutar comando a través de la cadena de interceptores
+            // (permisos, registro de uso, manejo de errores, tiempos)
+            ContextoComando contexto = new ContextoComando(comando, nombreComando, argumentos,
+                    usuarioId, canalId, servidorId, permisos, particion);
+            String texto = cadenaInterceptores.ejecutar(contexto);
+            if (texto == null || texto.trim().isEmpty()) {
+                return null;
+            }
+            
+            // Los listados largos van de a una página
+            if (comando instanceof RespuestaPaginada && !texto.startsWith("❌")) {
+                RespuestaPaginada paginada = (RespuestaPaginada) comando;
+                String listadoId = paginada.getListado(argumentos, usuarioId);
+                if (listadoId != null) {
+                    return new Respuesta(texto, nombreComando, listadoId, paginada.getPaginas(usuarioId, listadoId));
+                }
+            }
+            return new Respuesta(texto, nombreComando, null, 0);
+            
+        } catch (Exception e) {
+            System.err.println("Error procesando comando: " + e.getMessage());
+            return new Respuesta("❌ Error interno del bot. Intenta de nuevo más tarde.", null, null, 0);
+        }
+    }
+    
+    public CadenaInterceptores getCadenaInterceptores() {
+        return cadenaInterceptores;
+    }
+    
+    /**
+     * FUNCIONES: Separa un mensaje en nombre de comando y argumentos
+     * 
+     * @param contenidoMensaje Mensaje completo, con el prefijo
+     * @return El nombre del comando (en minúsculas) seguido de sus argumentos,
+     *         o null si después del prefijo no hay nada
+     */
+    public static String[] parsearComando(String contenidoMensaje) {
+        String[] partes = contenidoMensaje.substring(PREFIJO_COMANDO.length()).trim().split("\\s+");
+        if (partes.length == 0 || partes[0].isEmpty()) {
+            return null;
+        }
+        partes[0] = partes[0].toLowerCase();
+        return partes;
+    }
+    
+    /**
+     * MÉTODOS: Registra en una partición los comandos del bot
+     * 
+     * @param particion Partición recién creada
+     * @param recordatorios Programador de avisos de vencimiento (compartido)
+     */
+    public static void registrarComandos(ParticionServidor particion, ProgramadorRecordatorios recordatorios) {
+        // Crear instancias de comandos unificados por funcionalidad - POLIMORFISMO en acción
+        particion.registrarComandos(
+            new ComandoMaterias(particion.getTareas(), particion.getMaterias(), particion.getUsuarios()),  // Comandos de gestión de materias académicas
+            new ComandoTareas(particion.getTareas(),                                                       // Comandos de gestión de tareas y asignaciones
+                    new SesionesVista(MAX_SESIONES_VISTA, DURACION_SESION_VISTA_MS), particion.getMaterias(),
+                    particion.getUsuarios(), recordatorios),
+            new ComandoSistema(particion.getTareas(), particion.getUsuarios(), particion.getEstadisticas()),
+            new ComandoDocente()          // Comandos de gestión de docentes
+            // Aquí podrías añadir más grupos de comandos que implementen la interfaz Comando
+        );
+    }
+    
+    /**
+     * MÉTODOS: Configura la cadena de interceptores que envuelve cada comando
+     * El orden importa: el primero de la lista es el más externo
+     * 
+     * @param umbralComandoLentoMs Avisar si un comando tarda más que esto
+     * @return Cadena de interceptores lista para usar
+     */
+    public static CadenaInterceptores configurarInterceptores(long umbralComandoLentoMs) {
+        List<InterceptorComando> interceptores = new ArrayList<>();
+        interceptores.add(new InterceptorErrores());                          // Convierte excepciones en mensajes
+        interceptores.add(new InterceptorTiempo(umbralComandoLentoMs));       // Avisa de comandos lentos
+        interceptores.add(new InterceptorPermisos());                         // Verifica permisos
+        interceptores.add(new InterceptorRegistroUso());                      // Registra estadísticas de uso
+        interceptores.add(new InterceptorCache());                            // Reutiliza respuestas de solo lectura
+        
+        for (InterceptorComando interceptor : interceptores) {
+            System.out.println("✅ Interceptor registrado: " + interceptor.getClass().getSimpleName());
+        }
+        return new CadenaInterceptores(interceptores);
+    }
+}
@@ -1,6 +1,7 @@
 package com.educativo.bot.comandos;
 
 import com.educativo.bot.interfaces.Comando;
+import com.educativo.bot.modelos.Permiso;
 
 /**
  * CONCEPTO: HERENCIA
@@ -20,7 +21,7 @@ public abstract class ComandoBase implements Comando {
     protected String nombre;           // Nombre del comando
     protected String descripcion;      // Descripción del comando
     protected String uso;              // Sintaxis de uso
-    protected boolean requierePermisos; // Si necesita permisos especiales
+    protected long permisosRequeridos; // Máscara de permisos necesarios (0 = ninguno)
     
     /**
      * Constructor de la clase base
@@ -29,13 +30,25 @@ public abstract class ComandoBase implements Comando {
      * @param nombre Nombre del comando
      * @param descripcion Descripción del comando
      * @param uso Sintaxis de uso
-     * @param requierePermisos Si requiere permisos especiales
+     * @param requierePermisos Si requiere permisos de moderador
      */
     public ComandoBase(String nombre, String descripcion, String uso, boolean requierePermisos) {
+        this(nombre, descripcion, uso, requierePermisos ? Permiso.MODERADOR.getBit() : 0L);
+    }
+    
+    /**
+     * Constructor con permisos específicos
+     * 
+     * @param nombre Nombre del comando
+     * @param descripcion Descripción del comando
+     * @param uso Sintaxis de uso
+     * @param permisosRequeridos Máscara de permisos necesarios (ver Permiso.mascara)
+     */
+    public ComandoBase(String nombre, String descripcion, String uso, long permisosRequeridos) {
         this.nombre = nombre;
         this.descripcion = descripcion;
         this.uso = uso;
-        this.requierePermisos = requierePermisos;
+        this.permisosRequeridos = permisosRequeridos;
     }
     
     // IMPLEMENTACIÓN de métodos de la interfaz Comando
@@ -72,36 +85,24 @@ public abstract class ComandoBase implements Comando {
      * Verifica permisos básicos
      * Las clases hijas pueden SOBRESCRIBIR este método si necesitan lógica específica
      * Esto demuestra POLIMORFISMO por sobrescritura
+     * 
+     * Los permisos del usuario ya vienen resueltos desde sus roles de Discord,
+     * así que la verificación es una operación de bits de tiempo constante.
      */
     @Override
-    public boolean tienePermisos(String usuarioId) {
-        // Implementación básica: si no requiere permisos, siempre permite
-        if (!requierePermisos) {
-            return true;
-        }
-        
-        // Aquí podrías verificar contra una lista de moderadores
-        // Por simplicidad, asumimos que ciertos IDs son moderadores
-        return esModerador(usuarioId);
+    public boolean tienePermisos(long permisosUsuario) {
+        return (permisosUsuario & permisosRequeridos) == permisosRequeridos;
     }
     
     /**
      * Método auxiliar para verificar si un usuario es moderador
      * Método protegido - accesible por clases hijas pero no por el exterior
      * 
-     * @param usuarioId ID del usuario
+     * @param permisosUsuario Máscara de permisos del usuario
      * @return true si es moderador
      */
-    protected boolean esModerador(String usuarioId) {
-        // Lista simple de moderadores - en una aplicación real esto vendría de una base de datos
-        String[] moderadores = {"123456789", "987654321"}; // IDs de ejemplo
-        
-        for (String moderadorId : moderadores) {
-            if (moderadorId.equals(usuarioId)) {
-                return true;
-            }
-        }
-        return false;
+    protected boolean esModerador(long permisosUsuario) {
+        return Permiso.MODERADOR.en(permisosUsuario);
     }
     
     /**
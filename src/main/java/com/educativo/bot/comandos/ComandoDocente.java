@@ -22,7 +22,7 @@ import com.educativo.bot.modelos.Docente;
 public class ComandoDocente extends ComandoBase {
     
     // ENCAPSULAMIENTO: Datos estáticos compartidos
-    private static final List<Docentes> tareas = new ArrayList<>();
+    private static final List<Docente> docentes = new ArrayList<>();
     private static final List<Usuario> usuarios = new ArrayList<>();
     
     public ComandoDocente() {
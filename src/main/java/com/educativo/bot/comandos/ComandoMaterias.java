@@ -1,13 +1,21 @@
 package com.educativo.bot.comandos;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import com.educativo.bot.interfaces.RespuestaCacheable;
 import com.educativo.bot.modelos.Materia;
 import com.educativo.bot.modelos.Tarea;
 import com.educativo.bot.modelos.Usuario;
+import com.educativo.bot.servicios.AlmacenTareas;
+import com.educativo.bot.servicios.IndiceMaterias;
+import com.educativo.bot.servicios.RegistroUsuarios;
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
 
 /**
  * COMANDOS DE MATERIAS UNIFICADOS
@@ -21,18 +29,18 @@ import com.educativo.bot.modelos.Usuario;
  * 
  * Demuestra POLIMORFISMO con múltiples subcomandos en una sola clase.
  */
-public class ComandoMaterias extends ComandoBase {
+public class ComandoMaterias extends ComandoBase implements RespuestaCacheable {
     
-    // ENCAPSULAMIENTO: Datos estáticos compartidos
-    private static final List<Materia> materias = new ArrayList<>();
-    private static final List<Tarea> tareas = new ArrayList<>();
-    private static final List<Usuario> usuarios = new ArrayList<>();
+    // ENCAPSULAMIENTO: Datos compartidos con los demás comandos
+    private final AlmacenTareas tareas;       // Tareas compartidas con ComandoTareas
+    private final IndiceMaterias materias;    // Materias indexadas por código
+    private final RegistroUsuarios usuarios;  // Registro único de usuarios
     
-    public ComandoMaterias() {
+    public ComandoMaterias(AlmacenTareas tareas, IndiceMaterias materias, RegistroUsuarios usuarios) {
         super(
             "materia",
             "Gestión completa de materias académicas",
-            "!materia [crear|listar|eliminar|tareas|archivar|desarchivar] [parámetros]\n\n" +
+            "!materia [crear|listar|buscar|eliminar|tareas|archivar|desarchivar] [parámetros]\n\n" +
             "**CREAR MATERIA:**\n" +
             "• `!materia crear <código> \"<nombre>\" [\"descripción\"] [\"profesor\"]`\n" +
             "• Ejemplo: `!materia crear MAT101 \"Matemáticas\" \"Álgebra básica\" \"Dr. Juan Pérez\"`\n\n" +
@@ -40,7 +48,8 @@ public class ComandoMaterias extends ComandoBase {
             "• `!materia listar` - Ver todas las materias\n" +
             "• `!materia listar activas` - Solo materias activas\n" +
             "• `!materia listar archivadas` - Solo materias archivadas\n" +
-            "• `!materia listar detalle` - Vista detallada con estadísticas\n\n" +
+            "• `!materia listar detalle` - Vista detallada con estadísticas\n" +
+            "• `!materia buscar <texto>` - Buscar por nombre, descripción o profesor\n\n" +
             "**OTRAS ACCIONES:**\n" +
             "• `!materia eliminar <código>` - Eliminar materia\n" +
             "• `!materia tareas <código> [pendientes|completadas|vencidas]` - Ver tareas de materia\n" +
@@ -48,12 +57,32 @@ public class ComandoMaterias extends ComandoBase {
             "• `!materia desarchivar <código>` - Desarchivar materia",
             false
         );
+        this.tareas = tareas;
+        this.materias = materias;
+        this.usuarios = usuarios;
+    }
+    
+    /**
+     * Solo los listados y las búsquedas son de solo lectura; el detalle incluye conteo de tareas
+     */
+    @Override
+    public Set<Dominio> dependenciasRespuesta(String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("buscar")) {
+            return EnumSet.of(Dominio.MATERIAS);
+        }
+        if (args.length == 0 || !args[0].equalsIgnoreCase("listar")) {
+            return null;
+        }
+        if (args.length > 1 && args[1].equalsIgnoreCase("detalle")) {
+            return EnumSet.of(Dominio.MATERIAS, Dominio.TAREAS);
+        }
+        return EnumSet.of(Dominio.MATERIAS);
     }
     
     @Override
     public String ejecutar(String[] args, String canalId, String usuarioId) {
         if (args.length == 0) {
-            return "❌ Debes especificar una acción: `crear`, `listar`, `eliminar`, `tareas`, `archivar` o `desarchivar`\n" +
+            return "❌ Debes especificar una acción: `crear`, `listar`, `buscar`, `eliminar`, `tareas`, `archivar` o `desarchivar`\n" +
                    "Usa `!ayuda materia` para ver todos los comandos disponibles.";
         }
         
@@ -64,6 +93,8 @@ public class ComandoMaterias extends ComandoBase {
                 return crearMateria(args, usuarioId);
             case "listar":
                 return listarMaterias(args);
+            case "buscar":
+                return buscarMaterias(args);
             case "eliminar":
                 return eliminarMateria(args, usuarioId);
             case "tareas":
@@ -74,7 +105,7 @@ public class ComandoMaterias extends ComandoBase {
                 return desarchivarMateria(args, usuarioId);
             default:
                 return "❌ Acción no válida: `" + accion + "`\n" +
-                       "Acciones disponibles: `crear`, `listar`, `eliminar`, `tareas`, `archivar`, `desarchivar`";
+                       "Acciones disponibles: `crear`, `listar`, `buscar`, `eliminar`, `tareas`, `archivar`, `desarchivar`";
         }
     }
     
@@ -92,8 +123,8 @@ public class ComandoMaterias extends ComandoBase {
         
         String codigo = args[1].toUpperCase();
         
-        // Verificar si ya existe
-        if (buscarMateriaPorCodigo(codigo) != null) {
+        // Verificar si ya existe (aviso rápido; la unicidad la garantiza el índice al agregar)
+        if (materias.buscar(codigo) != null) {
             return "❌ Ya existe una materia con el código `" + codigo + "`";
         }
         
@@ -109,13 +140,16 @@ public class ComandoMaterias extends ComandoBase {
         String profesor = argumentosParsed.size() > 2 ? argumentosParsed.get(2) : "";
         
         // Crear materia
-        Materia nuevaMateria = new Materia(UUID.randomUUID().toString(), codigo, nombre, descripcion, profesor, usuarioId);
-        materias.add(nuevaMateria);
+        Materia nuevaMateria = new Materia(UUID.randomUUID().toString(), nombre, codigo, descripcion, profesor, usuarioId);
+        if (!materias.agregar(nuevaMateria)) {
+            return "❌ Ya existe una materia con el código `" + codigo + "`";
+        }
         
         // Dar puntos al usuario por crear su primera materia
-        Usuario usuario = obtenerOCrearUsuario(usuarioId);
-        if (materias.stream().filter(m -> m.getCreadorId().equals(usuarioId)).count() == 1) {
-            usuario.agregarPuntos(5, "Primera materia creada");
+        Usuario usuario = usuarios.obtenerOCrear(usuarioId);
+        boolean primeraMateria = materias.contarDe(usuarioId) == 1;
+        if (primeraMateria) {
+            usuarios.agregarPuntos(usuario, 5, nuevaMateria.getCodigo());
         }
         
         return "✅ **Materia creada exitosamente**\n\n" +
@@ -123,39 +157,39 @@ public class ComandoMaterias extends ComandoBase {
                (descripcion.isEmpty() ? "" : "📝 " + descripcion + "\n") +
                (profesor.isEmpty() ? "" : "👨‍🏫 " + profesor + "\n") +
                "🆔 ID: `" + nuevaMateria.getId() + "`\n" +
-               (materias.stream().filter(m -> m.getCreadorId().equals(usuarioId)).count() == 1 ? 
-                "🎉 +5 puntos por crear tu primera materia!" : "");
+               (primeraMateria ? "🎉 +5 puntos por crear tu primera materia!" : "");
     }
     
     private String listarMaterias(String[] args) {
-        if (materias.isEmpty()) {
+        if (materias.estaVacio()) {
             return "📚 **No hay materias registradas**\n\n" +
                    "Crea una materia con: `!materia crear <código> \"<nombre>\"`";
         }
         
         String filtro = args.length > 1 ? args[1].toLowerCase() : "todas";
+        List<Materia> listaMaterias = materias.getOrdenadas();
         StringBuilder sb = new StringBuilder();
         
         switch (filtro) {
             case "activas":
                 sb.append("📚 **MATERIAS ACTIVAS**\n\n");
-                materias.stream()
+                listaMaterias.stream()
                     .filter(m -> m.isActiva())
                     .forEach(m -> sb.append(formatearMateriaResumen(m)));
                 break;
             case "archivadas":
                 sb.append("📦 **MATERIAS ARCHIVADAS**\n\n");
-                materias.stream()
+                listaMaterias.stream()
                     .filter(m -> !m.isActiva())
                     .forEach(m -> sb.append(formatearMateriaResumen(m)));
                 break;
             case "detalle":
                 sb.append("📚 **TODAS LAS MATERIAS (DETALLE)**\n\n");
-                materias.forEach(m -> sb.append(formatearMateriaDetalle(m)));
+                listaMaterias.forEach(m -> sb.append(formatearMateriaDetalle(m)));
                 break;
             default:
                 sb.append("📚 **TODAS LAS MATERIAS**\n\n");
-                materias.forEach(m -> sb.append(formatearMateriaResumen(m)));
+                listaMaterias.forEach(m -> sb.append(formatearMateriaResumen(m)));
                 break;
         }
         
@@ -166,6 +200,26 @@ public class ComandoMaterias extends ComandoBase {
         return sb.toString();
     }
     
+    private String buscarMaterias(String[] args) {
+        if (args.length < 2) {
+            return "❌ Debes indicar qué buscar.\n" +
+                   "Uso: `!materia buscar <texto>`";
+        }
+        
+        String consulta = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        List<Materia> encontradas = materias.buscarTexto(consulta);
+        
+        if (encontradas.isEmpty()) {
+            return "🔍 **Sin resultados para** `" + consulta + "`\n\n" +
+                   "La búsqueda ignora tildes y mayúsculas, y acepta el comienzo de las palabras.";
+        }
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("🔍 **MATERIAS: \"").append(consulta).append("\"** (").append(encontradas.size()).append(")\n\n");
+        encontradas.forEach(m -> sb.append(formatearMateriaResumen(m)));
+        return sb.toString();
+    }
+    
     private String eliminarMateria(String[] args, String usuarioId) {
         if (args.length < 2) {
             return "❌ Debes especificar el código de la materia a eliminar.\n" +
@@ -173,7 +227,7 @@ public class ComandoMaterias extends ComandoBase {
         }
         
         String codigo = args[1].toUpperCase();
-        Materia materia = buscarMateriaPorCodigo(codigo);
+        Materia materia = materias.buscar(codigo);
         
         if (materia == null) {
             return "❌ Materia `" + codigo + "` no encontrada.";
@@ -184,10 +238,8 @@ public class ComandoMaterias extends ComandoBase {
             return "❌ Solo el creador de la materia puede eliminarla.";
         }
         
-        // Verificar si tiene tareas asociadas
-        long tareasAsociadas = tareas.stream()
-            .filter(t -> codigo.equals(t.getMateria()))
-            .count();
+        // Verificar si tiene tareas asociadas (conteo mantenido por el almacén)
+        int tareasAsociadas = tareas.contarDeMateria(materia.getCodigo());
         
         if (tareasAsociadas > 0) {
             return "❌ No se puede eliminar la materia `" + codigo + "` porque tiene " + 
@@ -195,7 +247,7 @@ public class ComandoMaterias extends ComandoBase {
                    "Elimina primero las tareas o archiva la materia con `!materia archivar " + codigo + "`.";
         }
         
-        materias.remove(materia);
+        materias.eliminar(materia);
         return "✅ Materia `" + codigo + "` eliminada exitosamente.";
     }
     
@@ -206,15 +258,13 @@ public class ComandoMaterias extends ComandoBase {
         }
         
         String codigo = args[1].toUpperCase();
-        Materia materia = buscarMateriaPorCodigo(codigo);
+        Materia materia = materias.buscar(codigo);
         
         if (materia == null) {
             return "❌ Materia `" + codigo + "` no encontrada.";
         }
         
-        List<Tarea> tareasMateria = tareas.stream()
-            .filter(t -> codigo.equals(t.getMateria()))
-            .collect(Collectors.toList());
+        List<Tarea> tareasMateria = tareas.getTareasDeMateria(materia.getCodigo());
         
         if (tareasMateria.isEmpty()) {
             return "📝 **Materia: " + materia.getNombre() + "**\n\n" +
@@ -223,6 +273,10 @@ public class ComandoMaterias extends ComandoBase {
         }
         
         String filtro = args.length > 2 ? args[2].toLowerCase() : "todas";
+        if (filtro.equals("vencidas")) {
+            // Lectura directa del índice de vencimientos, sin filtrar por fecha
+            tareasMateria = tareas.getVencidasDeMateria(codigo);
+        }
         return formatearListaTareas(tareasMateria, filtro, "Materia: " + materia.getNombre());
     }
     
@@ -233,7 +287,7 @@ public class ComandoMaterias extends ComandoBase {
         }
         
         String codigo = args[1].toUpperCase();
-        Materia materia = buscarMateriaPorCodigo(codigo);
+        Materia materia = materias.buscar(codigo);
         
         if (materia == null) {
             return "❌ Materia `" + codigo + "` no encontrada.";
@@ -247,7 +301,9 @@ public class ComandoMaterias extends ComandoBase {
             return "❌ La materia `" + codigo + "` ya está archivada.";
         }
         
-        materia.setActiva(false);
+        if (materias.establecerActiva(materia, false) == null) {
+            return "❌ Materia `" + codigo + "` no encontrada.";
+        }
         return "📦 **Materia archivada**\n\n" +
                "📚 " + materia.getCodigo() + " - " + materia.getNombre() + "\n" +
                "💡 Usa `!materia desarchivar " + codigo + "` para restaurarla.";
@@ -260,7 +316,7 @@ public class ComandoMaterias extends ComandoBase {
         }
         
         String codigo = args[1].toUpperCase();
-        Materia materia = buscarMateriaPorCodigo(codigo);
+        Materia materia = materias.buscar(codigo);
         
         if (materia == null) {
             return "❌ Materia `" + codigo + "` no encontrada.";
@@ -274,7 +330,9 @@ public class ComandoMaterias extends ComandoBase {
             return "❌ La materia `" + codigo + "` no está archivada.";
         }
         
-        materia.setActiva(true);
+        if (materias.establecerActiva(materia, true) == null) {
+            return "❌ Materia `" + codigo + "` no encontrada.";
+        }
         return "✅ **Materia restaurada**\n\n" +
                "📚 " + materia.getCodigo() + " - " + materia.getNombre() + "\n" +
                "🎯 La materia está ahora activa nuevamente.";
@@ -284,24 +342,6 @@ public class ComandoMaterias extends ComandoBase {
     // MÉTODOS AUXILIARES
     // ========================
     
-    private Materia buscarMateriaPorCodigo(String codigo) {
-        return materias.stream()
-            .filter(m -> m.getCodigo().equalsIgnoreCase(codigo))
-            .findFirst()
-            .orElse(null);
-    }
-    
-    private Usuario obtenerOCrearUsuario(String usuarioId) {
-        return usuarios.stream()
-            .filter(u -> u.getId().equals(usuarioId))
-            .findFirst()
-            .orElseGet(() -> {
-                Usuario nuevoUsuario = new Usuario(usuarioId, "Usuario" + usuarios.size());
-                usuarios.add(nuevoUsuario);
-                return nuevoUsuario;
-            });
-    }
-    
     private String formatearMateriaResumen(Materia materia) {
         return "📚 **" + materia.getCodigo() + "** - " + materia.getNombre() + 
                (!materia.isActiva() ? " *(archivada)*" : "") + "\n";
@@ -320,10 +360,15 @@ public class ComandoMaterias extends ComandoBase {
             sb.append("👨‍🏫 ").append(materia.getProfesor()).append("\n");
         }
         
-        long tareasCount = tareas.stream()
-            .filter(t -> materia.getCodigo().equals(t.getMateria()))
-            .count();
-        sb.append("📋 Tareas: ").append(tareasCount).append("\n\n");
+        // Conteos mantenidos por el almacén: O(1) por materia
+        int tareasCount = tareas.contarDeMateria(materia.getCodigo());
+        int completadas = tareas.contarCompletadasDeMateria(materia.getCodigo());
+        sb.append("📋 Tareas: ").append(tareasCount);
+        if (tareasCount > 0) {
+            sb.append(" (").append(tareasCount - completadas).append(" pendientes, ")
+              .append(completadas).append(" completadas)");
+        }
+        sb.append("\n\n");
         
         return sb.toString();
     }
@@ -350,10 +395,7 @@ public class ComandoMaterias extends ComandoBase {
                 sb.append("✅ **").append(titulo).append(" - COMPLETADAS**\n\n");
                 break;
             case "vencidas":
-                tareasFiltradas = listaTareas.stream()
-                    .filter(t -> !t.isCompletada() && t.getFechaVencimiento() != null && 
-                            t.getFechaVencimiento().isBefore(java.time.LocalDateTime.now()))
-                    .collect(Collectors.toList());
+                // La lista ya viene del índice de vencimientos del almacén
                 sb.setLength(0);
                 sb.append("⚠️ **").append(titulo).append(" - VENCIDAS**\n\n");
                 break;
@@ -419,39 +461,4 @@ public class ComandoMaterias extends ComandoBase {
         
         return resultado;
     }
-    
-    // ========================
-    // MÉTODOS ESTÁTICOS PARA ACCESO COMPARTIDO
-    // ========================
-    
-    /**
-     * Permite acceso a la lista de materias desde otros comandos
-     */
-    public static List<Materia> getMaterias() {
-        return new ArrayList<>(materias);
-    }
-    
-    /**
-     * Permite acceso a la lista de tareas desde otros comandos
-     */
-    public static List<Tarea> getTareas() {
-        return new ArrayList<>(tareas);
-    }
-    
-    /**
-     * Busca una materia por código desde otros comandos
-     */
-    public static Materia buscarMateria(String codigo) {
-        return materias.stream()
-            .filter(m -> m.getCodigo().equalsIgnoreCase(codigo))
-            .findFirst()
-            .orElse(null);
-    }
-    
-    /**
-     * Agrega una tarea a la lista desde otros comandos
-     */
-    public static void agregarTarea(Tarea tarea) {
-        tareas.add(tarea);
-    }
 }
@@ -1,10 +1,16 @@
 package com.educativo.bot.comandos;
 
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+import com.educativo.bot.interfaces.RespuestaCacheable;
+import com.educativo.bot.modelos.Tarea;
 import com.educativo.bot.modelos.Usuario;
+import com.educativo.bot.servicios.AlmacenTareas;
+import com.educativo.bot.servicios.EstadisticasGlobales;
+import com.educativo.bot.servicios.RegistroUsuarios;
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
 
 /**
  * COMANDOS DE SISTEMA UNIFICADOS
@@ -18,13 +24,16 @@ import com.educativo.bot.modelos.Usuario;
  * 
  * Demuestra POLIMORFISMO con múltiples funcionalidades de sistema.
  */
-public class ComandoSistema extends ComandoBase {
+public class ComandoSistema extends ComandoBase implements RespuestaCacheable {
     
-    // ENCAPSULAMIENTO: Lista de usuarios para gestión de puntos
-    private static final List<Usuario> usuarios = new ArrayList<>();
     private static final String VERSION_BOT = "2.0.0";
     
-    public ComandoSistema() {
+    // ENCAPSULAMIENTO: Datos compartidos con los demás comandos
+    private final AlmacenTareas tareas;       // Tareas indexadas por creador
+    private final RegistroUsuarios usuarios;  // Registro único de usuarios (puntos y ranking)
+    private final EstadisticasGlobales estadisticas; // Contadores globales para !sistema stats
+    
+    public ComandoSistema(AlmacenTareas tareas, RegistroUsuarios usuarios, EstadisticasGlobales estadisticas) {
         super(
             "sistema",
             "Comandos de sistema, ayuda y configuración del bot",
@@ -42,6 +51,24 @@ public class ComandoSistema extends ComandoBase {
             "• `!sistema stats` - Estadísticas del bot y usuarios",
             false
         );
+        this.tareas = tareas;
+        this.usuarios = usuarios;
+        this.estadisticas = estadisticas;
+    }
+    
+    /**
+     * La ayuda y la información del bot son textos fijos: no dependen de ningún dato
+     */
+    @Override
+    public Set<Dominio> dependenciasRespuesta(String[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+        String tipoComando = args[0].toLowerCase();
+        if (tipoComando.equals("ayuda") || tipoComando.equals("info")) {
+            return EnumSet.noneOf(Dominio.class);
+        }
+        return null;
     }
     
     @Override
@@ -89,6 +116,7 @@ public class ComandoSistema extends ComandoBase {
         sb.append("**📚 GESTIÓN DE MATERIAS:**\n");
         sb.append("• `!materia crear <código> \"<nombre>\" [\"descripción\"] [\"profesor\"]`\n");
         sb.append("• `!materia listar [activas|archivadas|detalle]`\n");
+        sb.append("• `!materia buscar <texto>`\n");
         sb.append("• `!materia eliminar <código>`\n");
         sb.append("• `!materia tareas <código> [filtro]`\n");
         sb.append("• `!materia archivar/desarchivar <código>`\n\n");
@@ -96,6 +124,7 @@ public class ComandoSistema extends ComandoBase {
         sb.append("**📝 GESTIÓN DE TAREAS:**\n");
         sb.append("• `!tarea crear \"<título>\" [\"descripción\"] [materia] [prioridad]`\n");
         sb.append("• `!tarea listar [pendientes|completadas|vencidas]`\n");
+        sb.append("• `!tarea buscar <texto>`\n");
         sb.append("• `!tarea completar <número>`\n");
         sb.append("• `!tarea eliminar <número>`\n");
         sb.append("• `!tarea vencimiento <número> <fecha>`\n");
@@ -144,7 +173,8 @@ public class ComandoSistema extends ComandoBase {
                        "• `!materia listar` - Todas las materias\n" +
                        "• `!materia listar activas` - Solo activas\n" +
                        "• `!materia listar archivadas` - Solo archivadas\n" +
-                       "• `!materia listar detalle` - Vista completa con estadísticas\n\n" +
+                       "• `!materia listar detalle` - Vista completa con estadísticas\n" +
+                       "• `!materia buscar <texto>` - Buscar por nombre, descripción o profesor\n\n" +
                        "**GESTIÓN:**\n" +
                        "• `!materia eliminar <código>` - Eliminar (solo si no tiene tareas)\n" +
                        "• `!materia archivar <código>` - Archivar materia\n" +
@@ -169,7 +199,8 @@ public class ComandoSistema extends ComandoBase {
                        "• `!tarea listar pendientes` - Solo pendientes\n" +
                        "• `!tarea listar completadas` - Solo completadas\n" +
                        "• `!tarea listar vencidas` - Solo vencidas\n" +
-                       "• `!tarea listar materia <código>` - De una materia específica\n\n" +
+                       "• `!tarea listar materia <código>` - De una materia específica\n" +
+                       "• `!tarea buscar <texto>` - Buscar en título y descripción\n\n" +
                        "**GESTIÓN:**\n" +
                        "• `!tarea completar <número>` - Marcar como completada\n" +
                        "• `!tarea eliminar <número>` - Eliminar tarea\n" +
@@ -241,7 +272,7 @@ public class ComandoSistema extends ComandoBase {
     
     private String verPuntos(String usuarioId, String usuarioObjetivo) {
         String idConsulta = usuarioObjetivo != null ? extraerIdUsuario(usuarioObjetivo) : usuarioId;
-        Usuario usuario = obtenerOCrearUsuario(idConsulta);
+        Usuario usuario = usuarios.obtenerOCrear(idConsulta);
         
         StringBuilder sb = new StringBuilder();
         sb.append("🏆 **PUNTOS DEL USUARIO**\n\n");
@@ -261,16 +292,12 @@ public class ComandoSistema extends ComandoBase {
         sb.append("• 💚 Estado: ").append(usuario.estaActivo() ? "Activo" : "Inactivo").append("\n");
         
         // Agregar estadísticas de tareas si están disponibles
-        String estadisticasTareas = ComandoTareas.getEstadisticasUsuario(idConsulta);
+        String estadisticasTareas = getEstadisticasTareas(idConsulta);
         sb.append("• 📝 Tareas: ").append(estadisticasTareas).append("\n");
         
-        // Calcular posición en ranking
-        List<Usuario> ranking = usuarios.stream()
-            .sorted((u1, u2) -> Integer.compare(u2.getPuntos(), u1.getPuntos()))
-            .collect(Collectors.toList());
-        
-        int posicion = ranking.indexOf(usuario) + 1;
-        sb.append("• 🏅 Posición en ranking: #").append(posicion).append(" de ").append(usuarios.size());
+        // Posición en la clasificación incremental (sin ordenar a todos)
+        int posicion = usuarios.getPosicionRanking(idConsulta);
+        sb.append("• 🏅 Posición en ranking: #").append(posicion).append(" de ").append(usuarios.getTamanio());
         
         return sb.toString();
     }
@@ -280,10 +307,7 @@ public class ComandoSistema extends ComandoBase {
             int limite = Integer.parseInt(limitStr);
             limite = Math.max(1, Math.min(limite, 50)); // Entre 1 y 50
             
-            List<Usuario> ranking = usuarios.stream()
-                .sorted((u1, u2) -> Integer.compare(u2.getPuntos(), u1.getPuntos()))
-                .limit(limite)
-                .collect(Collectors.toList());
+            List<Usuario> ranking = usuarios.getRanking(limite);
             
             if (ranking.isEmpty()) {
                 return "🏆 **No hay usuarios con puntos registrados**\n\n" +
@@ -385,16 +409,15 @@ public class ComandoSistema extends ComandoBase {
      * ESTADÍSTICAS DEL BOT
      */
     private String ejecutarComandoStats() {
-        int totalUsuarios = usuarios.size();
-        int usuariosActivos = (int) usuarios.stream().filter(Usuario::estaActivo).count();
-        int totalPuntos = usuarios.stream().mapToInt(Usuario::getPuntos).sum();
+        // Lecturas de contadores ya mantenidos por los almacenes (sin recorrer datos)
+        int totalUsuarios = usuarios.getTamanio();
+        int usuariosActivos = estadisticas.getUsuariosActivos();
+        long totalPuntos = estadisticas.getPuntos();
         
-        // Obtener estadísticas de materias y tareas
-        List<com.educativo.bot.modelos.Materia> materias = ComandoMaterias.getMaterias();
-        List<com.educativo.bot.modelos.Tarea> tareas = ComandoTareas.getTareas();
-        
-        long materiasActivas = materias.stream().filter(com.educativo.bot.modelos.Materia::isActiva).count();
-        long tareasCompletadas = tareas.stream().filter(com.educativo.bot.modelos.Tarea::isCompletada).count();
+        long totalMaterias = estadisticas.getMaterias();
+        long materiasArchivadas = estadisticas.getMateriasArchivadas();
+        long totalTareas = estadisticas.getTareas();
+        long tareasCompletadas = estadisticas.getTareasCompletadas();
         
         return "📊 **ESTADÍSTICAS DEL BOT**\n\n" +
                "👥 **Usuarios:**\n" +
@@ -402,14 +425,14 @@ public class ComandoSistema extends ComandoBase {
                "• Usuarios activos: " + usuariosActivos + "\n" +
                "• Promedio puntos/usuario: " + (totalUsuarios > 0 ? totalPuntos / totalUsuarios : 0) + "\n\n" +
                "📚 **Materias:**\n" +
-               "• Total creadas: " + materias.size() + "\n" +
-               "• Materias activas: " + materiasActivas + "\n" +
-               "• Materias archivadas: " + (materias.size() - materiasActivas) + "\n\n" +
+               "• Total creadas: " + totalMaterias + "\n" +
+               "• Materias activas: " + (totalMaterias - materiasArchivadas) + "\n" +
+               "• Materias archivadas: " + materiasArchivadas + "\n\n" +
                "📝 **Tareas:**\n" +
-               "• Total creadas: " + tareas.size() + "\n" +
+               "• Total creadas: " + totalTareas + "\n" +
                "• Tareas completadas: " + tareasCompletadas + "\n" +
-               "• Tareas pendientes: " + (tareas.size() - tareasCompletadas) + "\n" +
-               "• Tasa de completación: " + (tareas.size() > 0 ? (tareasCompletadas * 100 / tareas.size()) : 0) + "%\n\n" +
+               "• Tareas pendientes: " + (totalTareas - tareasCompletadas) + "\n" +
+               "• Tasa de completación: " + (totalTareas > 0 ? (tareasCompletadas * 100 / totalTareas) : 0) + "%\n\n" +
                "💎 **Sistema de puntos:**\n" +
                "• Total puntos en circulación: " + totalPuntos + "\n" +
                "• Usuario con más puntos: " + obtenerUsuarioConMasPuntos() + "\n\n" +
@@ -425,15 +448,23 @@ public class ComandoSistema extends ComandoBase {
     // MÉTODOS AUXILIARES
     // ========================
     
-    private Usuario obtenerOCrearUsuario(String usuarioId) {
-        return usuarios.stream()
-            .filter(u -> u.getId().equals(usuarioId))
-            .findFirst()
-            .orElseGet(() -> {
-                Usuario nuevoUsuario = new Usuario(usuarioId, "Usuario" + usuarios.size());
-                usuarios.add(nuevoUsuario);
-                return nuevoUsuario;
-            });
+    /**
+     * Estadísticas de tareas de un usuario
+     * Solo recorre las tareas de ese usuario gracias al índice por creador
+     */
+    private String getEstadisticasTareas(String usuarioId) {
+        List<Tarea> tareasUsuario = tareas.getTareasDe(usuarioId);
+        
+        if (tareasUsuario.isEmpty()) {
+            return "Sin tareas registradas";
+        }
+        
+        long completadas = tareasUsuario.stream().filter(Tarea::isCompletada).count();
+        long pendientes = tareasUsuario.size() - completadas;
+        int vencidas = tareas.contarVencidasDe(usuarioId);
+        
+        return String.format("Total: %d | Completadas: %d | Pendientes: %d | Vencidas: %d", 
+                           tareasUsuario.size(), completadas, pendientes, vencidas);
     }
     
     private String extraerIdUsuario(String mencion) {
@@ -445,10 +476,12 @@ public class ComandoSistema extends ComandoBase {
     }
     
     private String obtenerUsuarioConMasPuntos() {
-        return usuarios.stream()
-            .max((u1, u2) -> Integer.compare(u1.getPuntos(), u2.getPuntos()))
-            .map(u -> u.getNombre() + " (" + u.getPuntos() + " pts)")
-            .orElse("Ninguno");
+        List<Usuario> primero = usuarios.getRanking(1);
+        if (primero.isEmpty()) {
+            return "Ninguno";
+        }
+        Usuario usuario = primero.get(0);
+        return usuario.getNombre() + " (" + usuario.getPuntos() + " pts)";
     }
     
     private String formatearTiempo(long milisegundos) {
@@ -467,39 +500,4 @@ public class ComandoSistema extends ComandoBase {
             return String.format("%d segundos", segundos);
         }
     }
-    
-    // ========================
-    // MÉTODOS ESTÁTICOS PARA ACCESO COMPARTIDO
-    // ========================
-    
-    /**
-     * Permite acceso a la lista de usuarios desde otros comandos
-     */
-    public static List<Usuario> getUsuarios() {
-        return new ArrayList<>(usuarios);
-    }
-    
-    /**
-     * Busca un usuario por ID
-     */
-    public static Usuario buscarUsuario(String usuarioId) {
-        return usuarios.stream()
-            .filter(u -> u.getId().equals(usuarioId))
-            .findFirst()
-            .orElse(null);
-    }
-    
-    /**
-     * Crea o obtiene un usuario
-     */
-    public static Usuario obtenerOCrearUsuarioEstatico(String usuarioId) {
-        return usuarios.stream()
-            .filter(u -> u.getId().equals(usuarioId))
-            .findFirst()
-            .orElseGet(() -> {
-                Usuario nuevoUsuario = new Usuario(usuarioId, "Usuario" + usuarios.size());
-                usuarios.add(nuevoUsuario);
-                return nuevoUsuario;
-            });
-    }
 }
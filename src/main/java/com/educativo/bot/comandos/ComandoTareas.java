@@ -4,13 +4,23 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import com.educativo.bot.interfaces.RespuestaPaginada;
 import com.educativo.bot.modelos.Materia;
 import com.educativo.bot.modelos.Tarea;
 import com.educativo.bot.modelos.Usuario;
+import com.educativo.bot.servicios.AlmacenTareas;
+import com.educativo.bot.servicios.IndiceMaterias;
+import com.educativo.bot.servicios.ProgramadorRecordatorios;
+import com.educativo.bot.servicios.RegistroUsuarios;
+import com.educativo.bot.servicios.SesionesVista;
 
 /**
  * COMANDOS DE TAREAS UNIFICADOS
@@ -24,18 +34,30 @@ import com.educativo.bot.modelos.Usuario;
  * - Cambiar prioridades
  * 
  * Demuestra POLIMORFISMO con múltiples subcomandos especializados.
+ * 
+ * Los listados se muestran de a una página (RespuestaPaginada); las demás
+ * páginas se dibujan desde la sesión de vista cuando se pulsan los botones.
  */
-public class ComandoTareas extends ComandoBase {
+public class ComandoTareas extends ComandoBase implements RespuestaPaginada {
+    
+    private static final int TAREAS_POR_PAGINA = 10;   // Tareas dibujadas en cada página de un listado
+    private static final int PUNTOS_BASE_COMPLETAR = 10; // Puntos por completar cualquier tarea
+    private static final int PUNTOS_POR_PRIORIDAD = 5;   // Bonus por cada nivel de prioridad
+    private static final int MAX_TITULOS_RESUMEN = 10;   // Títulos mostrados al resumir un lote
     
-    // ENCAPSULAMIENTO: Datos estáticos compartidos
-    private static final List<Tarea> tareas = new ArrayList<>();
-    private static final List<Usuario> usuarios = new ArrayList<>();
+    // ENCAPSULAMIENTO: Datos compartidos con los demás comandos
+    private final AlmacenTareas tareas;       // Tareas indexadas por creador e ID
+    private final SesionesVista sesiones;     // Último listado visto por cada usuario
+    private final IndiceMaterias materias;    // Materias indexadas por código
+    private final RegistroUsuarios usuarios;  // Registro único de usuarios
+    private final ProgramadorRecordatorios recordatorios; // Avisos antes de cada vencimiento
     
-    public ComandoTareas() {
+    public ComandoTareas(AlmacenTareas tareas, SesionesVista sesiones, IndiceMaterias materias,
+                         RegistroUsuarios usuarios, ProgramadorRecordatorios recordatorios) {
         super(
             "tarea",
             "Gestión completa de tareas de estudio",
-            "!tarea [crear|listar|completar|eliminar|vencimiento|prioridad] [parámetros]\n\n" +
+            "!tarea [crear|listar|buscar|completar|eliminar|vencimiento|prioridad] [parámetros]\n\n" +
             "**CREAR TAREA:**\n" +
             "• `!tarea crear \"<título>\" [\"descripción\"] [materia] [prioridad]`\n" +
             "• Ejemplo: `!tarea crear \"Estudiar capítulo 5\" \"Revisar ejemplos\" MAT101 2`\n" +
@@ -45,20 +67,30 @@ public class ComandoTareas extends ComandoBase {
             "• `!tarea listar pendientes` - Solo pendientes\n" +
             "• `!tarea listar completadas` - Solo completadas\n" +
             "• `!tarea listar vencidas` - Solo vencidas\n" +
-            "• `!tarea listar materia <código>` - Tareas de una materia específica\n\n" +
+            "• `!tarea listar materia <código>` - Tareas de una materia específica\n" +
+            "• `!tarea buscar <texto>` - Buscar en título y descripción (sin importar tildes)\n\n" +
             "**OTRAS ACCIONES:**\n" +
             "• `!tarea completar <número>` - Marcar como completada\n" +
-            "• `!tarea eliminar <número>` - Eliminar tarea\n" +
+            "• `!tarea completar 1,3,5-9` - Completar varias de una vez\n" +
+            "• `!tarea eliminar <número>` - Eliminar tarea (también acepta `1,3,5-9`)\n" +
+            "• `!tarea eliminar completadas` - Eliminar todas tus tareas completadas\n" +
             "• `!tarea vencimiento <número> <fecha>` - Establecer fecha (dd/MM/yyyy HH:mm)\n" +
-            "• `!tarea prioridad <número> <1-3>` - Cambiar prioridad",
+            "• `!tarea prioridad <número> <1-3>` - Cambiar prioridad\n" +
+            "• Los números son los del último `!tarea listar` que viste\n" +
+            "• Los listados largos se recorren con los botones ◀️ y ▶️",
             false
         );
+        this.tareas = tareas;
+        this.sesiones = sesiones;
+        this.materias = materias;
+        this.usuarios = usuarios;
+        this.recordatorios = recordatorios;
     }
     
     @Override
     public String ejecutar(String[] args, String canalId, String usuarioId) {
         if (args.length == 0) {
-            return "❌ Debes especificar una acción: `crear`, `listar`, `completar`, `eliminar`, `vencimiento` o `prioridad`\n" +
+            return "❌ Debes especificar una acción: `crear`, `listar`, `buscar`, `completar`, `eliminar`, `vencimiento` o `prioridad`\n" +
                    "Usa `!ayuda tarea` para ver todos los comandos disponibles.";
         }
         
@@ -69,6 +101,8 @@ public class ComandoTareas extends ComandoBase {
                 return crearTarea(args, usuarioId);
             case "listar":
                 return listarTareas(args, usuarioId);
+            case "buscar":
+                return buscarTareas(args, usuarioId);
             case "completar":
                 return completarTarea(args, usuarioId);
             case "eliminar":
@@ -79,7 +113,7 @@ public class ComandoTareas extends ComandoBase {
                 return cambiarPrioridad(args, usuarioId);
             default:
                 return "❌ Acción no válida: `" + accion + "`\n" +
-                       "Acciones disponibles: `crear`, `listar`, `completar`, `eliminar`, `vencimiento`, `prioridad`";
+                       "Acciones disponibles: `crear`, `listar`, `buscar`, `completar`, `eliminar`, `vencimiento`, `prioridad`";
         }
     }
     
@@ -120,7 +154,7 @@ public class ComandoTareas extends ComandoBase {
         
         // Verificar materia si no es "General"
         if (!codigoMateria.equals("General")) {
-            Materia materia = ComandoMaterias.buscarMateria(codigoMateria);
+            Materia materia = materias.buscar(codigoMateria);
             if (materia == null) {
                 return "❌ Materia `" + codigoMateria + "` no encontrada.\n" +
                        "Usa `!materia listar` para ver materias disponibles, o crea la tarea sin materia específica.";
@@ -129,13 +163,10 @@ public class ComandoTareas extends ComandoBase {
         
         // Crear tarea
         Tarea nuevaTarea = new Tarea(UUID.randomUUID().toString(), titulo, descripcion, codigoMateria, usuarioId, prioridad);
-        tareas.add(nuevaTarea);
-        
-        // Agregar tarea a la lista estática compartida de ComandoMaterias
-        ComandoMaterias.agregarTarea(nuevaTarea);
+        tareas.agregar(nuevaTarea);
         
         // Obtener usuario y dar puntos
-        Usuario usuario = obtenerOCrearUsuario(usuarioId);
+        Usuario usuario = usuarios.obtenerOCrear(usuarioId);
         
         StringBuilder respuesta = new StringBuilder();
         respuesta.append("✅ **Tarea creada exitosamente**\n\n");
@@ -151,11 +182,10 @@ public class ComandoTareas extends ComandoBase {
     }
     
     private String listarTareas(String[] args, String usuarioId) {
-        List<Tarea> tareasUsuario = tareas.stream()
-            .filter(t -> t.getCreadorId().equals(usuarioId))
-            .collect(Collectors.toList());
+        List<Tarea> tareasUsuario = tareas.getTareasOrdenadasDe(usuarioId);
         
         if (tareasUsuario.isEmpty()) {
+            sesiones.registrar(usuarioId, tareasUsuario);
             return "📝 **No tienes tareas registradas**\n\n" +
                    "Crea una tarea con: `!tarea crear \"<título>\"`";
         }
@@ -163,45 +193,70 @@ public class ComandoTareas extends ComandoBase {
         // Verificar si es filtro por materia
         if (args.length > 2 && args[1].toLowerCase().equals("materia")) {
             String codigoMateria = args[2].toUpperCase();
-            return listarTareasPorMateria(tareasUsuario, codigoMateria);
+            return listarTareasPorMateria(tareasUsuario, codigoMateria, usuarioId);
         }
         
         String filtro = args.length > 1 ? args[1].toLowerCase() : "todas";
-        return formatearListaTareas(tareasUsuario, filtro, "Mis Tareas");
+        if (filtro.equals("vencidas")) {
+            // Lectura directa del índice de vencimientos, sin filtrar por fecha
+            return formatearListaTareas(tareas.getVencidasDe(usuarioId), filtro, "Mis Tareas", usuarioId);
+        }
+        return formatearListaTareas(tareasUsuario, filtro, "Mis Tareas", usuarioId);
+    }
+    
+    private String buscarTareas(String[] args, String usuarioId) {
+        if (args.length < 2) {
+            return "❌ Debes indicar qué buscar.\n" +
+                   "Uso: `!tarea buscar <texto>`";
+        }
+        
+        String consulta = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        List<Tarea> encontradas = tareas.buscarTexto(usuarioId, consulta);
+        
+        if (encontradas.isEmpty()) {
+            sesiones.registrar(usuarioId, encontradas);
+            return "🔍 **Sin resultados para** `" + consulta + "`\n\n" +
+                   "La búsqueda ignora tildes y mayúsculas, y acepta el comienzo de las palabras.";
+        }
+        
+        // Se numeran como un listado más, así funcionan con completar/eliminar
+        return formatearListaTareas(encontradas, "todas", "Resultados para \"" + consulta + "\"", usuarioId);
     }
     
     private String completarTarea(String[] args, String usuarioId) {
         if (args.length < 2) {
             return "❌ Debes especificar el número de la tarea a completar.\n" +
-                   "Uso: `!tarea completar <número>`\n" +
+                   "Uso: `!tarea completar <número>` o `!tarea completar 1,3,5-9`\n" +
                    "Usa `!tarea listar` para ver los números.";
         }
         
+        if (args.length > 2 || !args[1].matches("\\d+")) {
+            return completarVarias(unirSeleccion(args), usuarioId);
+        }
+        
         try {
             int numero = Integer.parseInt(args[1]);
-            List<Tarea> tareasUsuario = tareas.stream()
-                .filter(t -> t.getCreadorId().equals(usuarioId))
-                .collect(Collectors.toList());
-            
-            if (numero < 1 || numero > tareasUsuario.size()) {
-                return "❌ Número de tarea inválido. Debe estar entre 1 y " + tareasUsuario.size();
+            SesionesVista.Vista vista = obtenerVista(usuarioId);
+            Tarea tarea = resolverTarea(vista, numero);
+            if (tarea == null) {
+                return "❌ Número de tarea inválido. Debe estar entre 1 y " + vista.getTamanio() + "\n" +
+                       "Usa `!tarea listar` para ver los números.";
             }
             
-            Tarea tarea = tareasUsuario.get(numero - 1);
-            
-            if (tarea.isCompletada()) {
+            // El almacén solo devuelve la versión completada a un único hilo,
+            // así que los puntos no se otorgan dos veces
+            if (tareas.completar(tarea) == null) {
                 return "❌ La tarea `" + tarea.getTitulo() + "` ya está completada.";
             }
-            
-            tarea.setCompletada(true);
+            recordatorios.cancelar(tareas, tarea.getId());
             
             // Otorgar puntos basados en prioridad
-            Usuario usuario = obtenerOCrearUsuario(usuarioId);
-            int puntosBase = 10;
-            int puntosBonus = tarea.getPrioridad() * 5; // 5, 10 o 15 puntos bonus
+            Usuario usuario = usuarios.obtenerOCrear(usuarioId);
+            int puntosBase = PUNTOS_BASE_COMPLETAR;
+            int puntosBonus = tarea.getPrioridad() * PUNTOS_POR_PRIORIDAD; // 5, 10 o 15 puntos bonus
             int puntosTotal = puntosBase + puntosBonus;
             
-            usuario.agregarPuntos(puntosTotal, "Tarea completada: " + tarea.getTitulo());
+            usuarios.agregarPuntos(usuario, puntosTotal, tarea.getMateria());
             
             return "✅ **Tarea completada**\n\n" +
                    "📝 " + tarea.getTitulo() + "\n" +
@@ -217,21 +272,30 @@ public class ComandoTareas extends ComandoBase {
     private String eliminarTarea(String[] args, String usuarioId) {
         if (args.length < 2) {
             return "❌ Debes especificar el número de la tarea a eliminar.\n" +
-                   "Uso: `!tarea eliminar <número>`";
+                   "Uso: `!tarea eliminar <número>`, `!tarea eliminar 1,3,5-9` o `!tarea eliminar completadas`";
+        }
+        
+        if (args.length == 2 && args[1].equalsIgnoreCase("completadas")) {
+            List<Tarea> eliminadas = tareas.eliminarCompletadasDe(usuarioId);
+            if (eliminadas.isEmpty()) {
+                return "📝 No tienes tareas completadas para eliminar.";
+            }
+            return resumirLote("🗑️ **" + eliminadas.size() + " tarea(s) completada(s) eliminada(s)**", eliminadas);
+        }
+        
+        if (args.length > 2 || !args[1].matches("\\d+")) {
+            return eliminarVarias(unirSeleccion(args), usuarioId);
         }
         
         try {
             int numero = Integer.parseInt(args[1]);
-            List<Tarea> tareasUsuario = tareas.stream()
-                .filter(t -> t.getCreadorId().equals(usuarioId))
-                .collect(Collectors.toList());
-            
-            if (numero < 1 || numero > tareasUsuario.size()) {
+            Tarea tarea = resolverTarea(obtenerVista(usuarioId), numero);
+            if (tarea == null) {
                 return "❌ Número de tarea inválido.";
             }
             
-            Tarea tarea = tareasUsuario.get(numero - 1);
-            tareas.remove(tarea);
+            tareas.eliminar(tarea);
+            recordatorios.cancelar(tareas, tarea.getId());
             
             return "✅ Tarea `" + tarea.getTitulo() + "` eliminada exitosamente.";
             
@@ -249,11 +313,8 @@ public class ComandoTareas extends ComandoBase {
         
         try {
             int numero = Integer.parseInt(args[1]);
-            List<Tarea> tareasUsuario = tareas.stream()
-                .filter(t -> t.getCreadorId().equals(usuarioId))
-                .collect(Collectors.toList());
-            
-            if (numero < 1 || numero > tareasUsuario.size()) {
+            Tarea tarea = resolverTarea(obtenerVista(usuarioId), numero);
+            if (tarea == null) {
                 return "❌ Número de tarea inválido.";
             }
             
@@ -267,12 +328,16 @@ public class ComandoTareas extends ComandoBase {
                 return "❌ La fecha de vencimiento no puede ser en el pasado.";
             }
             
-            Tarea tarea = tareasUsuario.get(numero - 1);
-            tarea.setFechaVencimiento(fechaVencimiento);
+            Tarea actualizada = tareas.establecerVencimiento(tarea, fechaVencimiento);
+            if (actualizada == null) {
+                return "❌ Número de tarea inválido.";
+            }
+            recordatorios.programar(tareas, actualizada);
             
             return "✅ **Fecha de vencimiento establecida**\n\n" +
                    "📝 Tarea: " + tarea.getTitulo() + "\n" +
-                   "⏰ Vence: " + fechaVencimiento.format(formatter);
+                   "⏰ Vence: " + fechaVencimiento.format(formatter) + "\n" +
+                   "🔔 Te enviaré un recordatorio por mensaje directo antes del vencimiento";
             
         } catch (NumberFormatException e) {
             return "❌ El número de tarea debe ser un número válido.";
@@ -296,17 +361,15 @@ public class ComandoTareas extends ComandoBase {
                 return "❌ La prioridad debe estar entre 1 (baja) y 3 (alta).";
             }
             
-            List<Tarea> tareasUsuario = tareas.stream()
-                .filter(t -> t.getCreadorId().equals(usuarioId))
-                .collect(Collectors.toList());
-            
-            if (numero < 1 || numero > tareasUsuario.size()) {
+            Tarea tarea = resolverTarea(obtenerVista(usuarioId), numero);
+            if (tarea == null) {
                 return "❌ Número de tarea inválido.";
             }
             
-            Tarea tarea = tareasUsuario.get(numero - 1);
             int prioridadAnterior = tarea.getPrioridad();
-            tarea.setPrioridad(nuevaPrioridad);
+            if (tareas.cambiarPrioridad(tarea, nuevaPrioridad) == null) {
+                return "❌ Número de tarea inválido.";
+            }
             
             return "✅ **Prioridad actualizada**\n\n" +
                    "📝 Tarea: " + tarea.getTitulo() + "\n" +
@@ -318,32 +381,187 @@ public class ComandoTareas extends ComandoBase {
         }
     }
     
+    // ========================
+    // OPERACIONES EN LOTE
+    // ========================
+    
+    /**
+     * Completa varias tareas del último listado en una sola escritura,
+     * con una sola actualización de puntos y un solo mensaje de resumen
+     */
+    private String completarVarias(String seleccion, String usuarioId) {
+        List<Tarea> lote;
+        try {
+            lote = resolverSeleccion(obtenerVista(usuarioId), seleccion);
+        } catch (IllegalArgumentException e) {
+            return "❌ " + e.getMessage() + "\n" +
+                   "Ejemplo: `!tarea completar 1,3,5-9`";
+        }
+        
+        List<Tarea> completadas = tareas.completarVarias(lote);
+        if (completadas.isEmpty()) {
+            return "❌ Las tareas seleccionadas ya estaban completadas.";
+        }
+        recordatorios.cancelarTodas(tareas, completadas);
+        
+        // Sumar los puntos por materia y otorgarlos de una vez
+        Map<String, Integer> puntosPorMateria = new HashMap<>();
+        int puntosTotal = 0;
+        for (Tarea tarea : completadas) {
+            int puntos = PUNTOS_BASE_COMPLETAR + tarea.getPrioridad() * PUNTOS_POR_PRIORIDAD;
+            puntosPorMateria.merge(tarea.getMateria(), puntos, Integer::sum);
+            puntosTotal += puntos;
+        }
+        Usuario usuario = usuarios.obtenerOCrear(usuarioId);
+        usuarios.agregarPuntosPorMateria(usuario, puntosPorMateria);
+        
+        StringBuilder respuesta = new StringBuilder(
+                resumirLote("✅ **" + completadas.size() + " tarea(s) completada(s)**", completadas));
+        int omitidas = lote.size() - completadas.size();
+        if (omitidas > 0) {
+            respuesta.append("\n⏭️ ").append(omitidas).append(" ya estaba(n) completada(s)");
+        }
+        respuesta.append("\n🎉 +").append(puntosTotal).append(" puntos otorgados");
+        respuesta.append("\n🏆 Total de puntos: ").append(usuario.getPuntos());
+        return respuesta.toString();
+    }
+    
+    /**
+     * Elimina varias tareas del último listado en una sola escritura
+     */
+    private String eliminarVarias(String seleccion, String usuarioId) {
+        List<Tarea> lote;
+        try {
+            lote = resolverSeleccion(obtenerVista(usuarioId), seleccion);
+        } catch (IllegalArgumentException e) {
+            return "❌ " + e.getMessage() + "\n" +
+                   "Ejemplo: `!tarea eliminar 1,3,5-9`";
+        }
+        
+        List<Tarea> eliminadas = tareas.eliminarVarias(lote);
+        if (eliminadas.isEmpty()) {
+            return "❌ Las tareas seleccionadas ya no existen.";
+        }
+        recordatorios.cancelarTodas(tareas, eliminadas);
+        return resumirLote("🗑️ **" + eliminadas.size() + " tarea(s) eliminada(s)**", eliminadas);
+    }
+    
+    /**
+     * Une los argumentos de una selección, así "1, 3, 5-9" equivale a "1,3,5-9"
+     */
+    private String unirSeleccion(String[] args) {
+        return String.join("", Arrays.copyOfRange(args, 1, args.length));
+    }
+    
+    /**
+     * Convierte una selección como "1,3,5-9" en las tareas del listado
+     * Los números repetidos cuentan una vez; las tareas ya eliminadas se omiten
+     * 
+     * @throws IllegalArgumentException Si la selección no es válida
+     */
+    private List<Tarea> resolverSeleccion(SesionesVista.Vista vista, String seleccion) {
+        BitSet numeros = parsearSeleccion(seleccion, vista.getTamanio());
+        List<Tarea> lote = new ArrayList<>(numeros.cardinality());
+        for (int numero = numeros.nextSetBit(1); numero >= 0; numero = numeros.nextSetBit(numero + 1)) {
+            Tarea tarea = resolverTarea(vista, numero);
+            if (tarea != null) {
+                lote.add(tarea);
+            }
+        }
+        if (lote.isEmpty()) {
+            throw new IllegalArgumentException("Las tareas seleccionadas ya no existen.");
+        }
+        return lote;
+    }
+    
+    /**
+     * FUNCIONES: Interpreta una selección de números y rangos separados por comas
+     * 
+     * @param seleccion Texto como "1,3,5-9"
+     * @param maximo Número más alto válido
+     * @return Números seleccionados
+     * @throws IllegalArgumentException Si hay partes mal escritas o fuera de rango
+     */
+    private static BitSet parsearSeleccion(String seleccion, int maximo) {
+        BitSet numeros = new BitSet(maximo + 1);
+        for (String parte : seleccion.split(",")) {
+            if (parte.isEmpty()) {
+                continue;
+            }
+            int guion = parte.indexOf('-');
+            int desde;
+            int hasta;
+            try {
+                desde = Integer.parseInt(guion < 0 ? parte : parte.substring(0, guion));
+                hasta = guion < 0 ? desde : Integer.parseInt(parte.substring(guion + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("`" + parte + "` no es un número ni un rango válido.");
+            }
+            if (desde < 1 || hasta > maximo || desde > hasta) {
+                throw new IllegalArgumentException("`" + parte + "` está fuera de rango. Los números van de 1 a " + maximo + ".");
+            }
+            numeros.set(desde, hasta + 1);
+        }
+        if (numeros.isEmpty()) {
+            throw new IllegalArgumentException("Debes indicar al menos un número.");
+        }
+        return numeros;
+    }
+    
+    /**
+     * Resume un lote en un solo mensaje corto
+     */
+    private String resumirLote(String titulo, List<Tarea> lote) {
+        StringBuilder sb = new StringBuilder(titulo).append("\n\n");
+        int mostrados = Math.min(lote.size(), MAX_TITULOS_RESUMEN);
+        for (int i = 0; i < mostrados; i++) {
+            sb.append("• ").append(lote.get(i).getTitulo()).append("\n");
+        }
+        if (lote.size() > mostrados) {
+            sb.append("• … y ").append(lote.size() - mostrados).append(" más\n");
+        }
+        return sb.toString();
+    }
+    
     // ========================
     // MÉTODOS AUXILIARES
     // ========================
     
-    private String listarTareasPorMateria(List<Tarea> tareasUsuario, String codigoMateria) {
+    private String listarTareasPorMateria(List<Tarea> tareasUsuario, String codigoMateria, String usuarioId) {
         List<Tarea> tareasMateria = tareasUsuario.stream()
             .filter(t -> t.getMateria().equalsIgnoreCase(codigoMateria))
             .collect(Collectors.toList());
         
         if (tareasMateria.isEmpty()) {
+            sesiones.registrar(usuarioId, tareasMateria);
             return "📝 **Tareas de " + codigoMateria + "**\n\n" +
                    "No tienes tareas para esta materia.";
         }
         
-        return formatearListaTareas(tareasMateria, "todas", "Tareas de " + codigoMateria);
+        return formatearListaTareas(tareasMateria, "todas", "Tareas de " + codigoMateria, usuarioId);
     }
     
-    private Usuario obtenerOCrearUsuario(String usuarioId) {
-        return usuarios.stream()
-            .filter(u -> u.getId().equals(usuarioId))
-            .findFirst()
-            .orElseGet(() -> {
-                Usuario nuevoUsuario = new Usuario(usuarioId, "Usuario" + usuarios.size());
-                usuarios.add(nuevoUsuario);
-                return nuevoUsuario;
-            });
+    /**
+     * Obtiene el último listado que vio el usuario.
+     * Si no tiene uno vigente, numera como `!tarea listar` (todas, por prioridad)
+     * para que los números siempre coincidan con lo que se muestra.
+     */
+    private SesionesVista.Vista obtenerVista(String usuarioId) {
+        SesionesVista.Vista vista = sesiones.obtener(usuarioId);
+        if (vista == null) {
+            vista = sesiones.registrar(usuarioId, tareas.getTareasOrdenadasDe(usuarioId));
+        }
+        return vista;
+    }
+    
+    /**
+     * Resuelve un número mostrado en un listado a la tarea correspondiente
+     * 
+     * @return La tarea, o null si el número no existe o la tarea fue eliminada
+     */
+    private Tarea resolverTarea(SesionesVista.Vista vista, int numero) {
+        String tareaId = vista.getTareaId(numero);
+        return tareaId == null ? null : tareas.buscarPorId(tareaId);
     }
     
     private String getPrioridadTexto(int prioridad) {
@@ -355,9 +573,8 @@ public class ComandoTareas extends ComandoBase {
         }
     }
     
-    private String formatearListaTareas(List<Tarea> listaTareas, String filtro, String titulo) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("📝 **").append(titulo).append("**\n\n");
+    private String formatearListaTareas(List<Tarea> listaTareas, String filtro, String titulo, String usuarioId) {
+        String encabezado = "📝 **" + titulo + "**\n\n";
         
         List<Tarea> tareasFiltradas = listaTareas;
         
@@ -366,43 +583,58 @@ public class ComandoTareas extends ComandoBase {
                 tareasFiltradas = listaTareas.stream()
                     .filter(t -> !t.isCompletada())
                     .collect(Collectors.toList());
-                sb.setLength(0);
-                sb.append("⏳ **").append(titulo).append(" - PENDIENTES**\n\n");
+                encabezado = "⏳ **" + titulo + " - PENDIENTES**\n\n";
                 break;
             case "completadas":
                 tareasFiltradas = listaTareas.stream()
                     .filter(Tarea::isCompletada)
                     .collect(Collectors.toList());
-                sb.setLength(0);
-                sb.append("✅ **").append(titulo).append(" - COMPLETADAS**\n\n");
+                encabezado = "✅ **" + titulo + " - COMPLETADAS**\n\n";
                 break;
             case "vencidas":
-                tareasFiltradas = listaTareas.stream()
-                    .filter(t -> !t.isCompletada() && t.getFechaVencimiento() != null && 
-                            t.getFechaVencimiento().isBefore(LocalDateTime.now()))
-                    .collect(Collectors.toList());
-                sb.setLength(0);
-                sb.append("⚠️ **").append(titulo).append(" - VENCIDAS**\n\n");
+                // La lista ya viene del índice de vencimientos del almacén
+                encabezado = "⚠️ **" + titulo + " - VENCIDAS**\n\n";
                 break;
         }
         
-        if (tareasFiltradas.isEmpty()) {
+        // Recordar este listado para que los números (y las páginas) se resuelvan contra él
+        SesionesVista.Vista vista = sesiones.registrar(usuarioId, tareasFiltradas, encabezado);
+        
+        // Las tareas ya llegan ordenadas por prioridad desde el almacén
+        return dibujarPagina(vista, 1);
+    }
+    
+    /**
+     * Dibuja una sola página de un listado recordado
+     * Solo se consultan las tareas de esa página, así el costo no depende
+     * del largo del listado
+     * 
+     * @param vista Listado recordado
+     * @param pagina Número de página (desde 1, ya validado)
+     * @return Texto de la página
+     */
+    private String dibujarPagina(SesionesVista.Vista vista, int pagina) {
+        StringBuilder sb = new StringBuilder(vista.getEncabezado());
+        
+        if (vista.getTamanio() == 0) {
             sb.append("*No hay tareas en esta categoría*");
             return sb.toString();
         }
         
-        // Ordenar por prioridad (alta a baja) y luego por fecha de creación
-        tareasFiltradas.sort((t1, t2) -> {
-            int comparePrioridad = Integer.compare(t2.getPrioridad(), t1.getPrioridad());
-            if (comparePrioridad != 0) return comparePrioridad;
-            return t1.getFechaCreacion().compareTo(t2.getFechaCreacion());
-        });
-        
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+        int desde = (pagina - 1) * TAREAS_POR_PAGINA + 1;
+        int hasta = Math.min(desde + TAREAS_POR_PAGINA - 1, vista.getTamanio());
         
-        for (int i = 0; i < tareasFiltradas.size(); i++) {
-            Tarea tarea = tareasFiltradas.get(i);
-            sb.append("`").append(i + 1).append(".` ");
+        for (int numero = desde; numero <= hasta; numero++) {
+            Tarea tarea = tareas.buscarPorId(vista.getTareaId(numero));
+            sb.append("`").append(numero).append(".` ");
+            
+            if (tarea == null) {
+                // Eliminada después de listar: se conserva el número para no correr los demás
+                sb.append("🗑️ *Tarea eliminada*\n");
+                continue;
+            }
+            
             sb.append(tarea.isCompletada() ? "✅" : "⏳");
             sb.append(" **").append(tarea.getTitulo()).append("**");
             sb.append(" ").append(getPrioridadTexto(tarea.getPrioridad()));
@@ -419,16 +651,70 @@ public class ComandoTareas extends ComandoBase {
             
             if (tarea.getFechaVencimiento() != null) {
                 sb.append("   ⏰ Vence: ").append(tarea.getFechaVencimiento().format(formatter));
-                if (tarea.getFechaVencimiento().isBefore(LocalDateTime.now()) && !tarea.isCompletada()) {
+                if (tarea.estaVencida()) {
                     sb.append(" ⚠️ VENCIDA");
                 }
                 sb.append("\n");
             }
         }
         
+        int paginas = contarPaginas(vista);
+        if (paginas > 1) {
+            sb.append("\n📄 Página ").append(pagina).append(" de ").append(paginas)
+              .append(" · ").append(vista.getTamanio()).append(" tareas");
+        }
+        
         return sb.toString();
     }
     
+    private int contarPaginas(SesionesVista.Vista vista) {
+        return Math.max(1, (vista.getTamanio() + TAREAS_POR_PAGINA - 1) / TAREAS_POR_PAGINA);
+    }
+    
+    /**
+     * Obtiene un listado solo si sigue siendo el último que vio el usuario
+     * (si abrió otro, los botones del viejo ya no deben mostrar sus números)
+     */
+    private SesionesVista.Vista obtenerListado(String usuarioId, String listadoId) {
+        SesionesVista.Vista vista = sesiones.obtener(usuarioId);
+        return vista != null && vista.getId().equals(listadoId) ? vista : null;
+    }
+    
+    // ========================
+    // PAGINACIÓN (RespuestaPaginada)
+    // ========================
+    
+    @Override
+    public String getListado(String[] args, String usuarioId) {
+        if (args.length == 0) {
+            return null;
+        }
+        String accion = args[0].toLowerCase();
+        boolean generaListado = accion.equals("listar") || (accion.equals("buscar") && args.length > 1);
+        if (!generaListado) {
+            return null;
+        }
+        
+        SesionesVista.Vista vista = sesiones.obtener(usuarioId);
+        return vista != null && contarPaginas(vista) > 1 ? vista.getId() : null;
+    }
+    
+    @Override
+    public int getPaginas(String usuarioId, String listadoId) {
+        SesionesVista.Vista vista = obtenerListado(usuarioId, listadoId);
+        return vista == null ? 0 : contarPaginas(vista);
+    }
+    
+    @Override
+    public String renderizarPagina(String usuarioId, String listadoId, int pagina) {
+        SesionesVista.Vista vista = obtenerListado(usuarioId, listadoId);
+        if (vista == null) {
+            return null;
+        }
+        int paginaValida = Math.max(1, Math.min(pagina, contarPaginas(vista)));
+        return dibujarPagina(vista, paginaValida);
+    }
+    
     private List<String> parsearArgumentosConComillas(String[] args, int startIndex) {
         List<String> resultado = new ArrayList<>();
         StringBuilder argumentoActual = new StringBuilder();
@@ -469,45 +755,4 @@ public class ComandoTareas extends ComandoBase {
         
         return resultado;
     }
-    
-    // ========================
-    // MÉTODOS ESTÁTICOS PARA ACCESO COMPARTIDO
-    // ========================
-    
-    /**
-     * Permite acceso a la lista de tareas desde otros comandos
-     */
-    public static List<Tarea> getTareas() {
-        return new ArrayList<>(tareas);
-    }
-    
-    /**
-     * Busca tareas por usuario
-     */
-    public static List<Tarea> getTareasPorUsuario(String usuarioId) {
-        return tareas.stream()
-            .filter(t -> t.getCreadorId().equals(usuarioId))
-            .collect(Collectors.toList());
-    }
-    
-    /**
-     * Obtiene estadísticas de tareas por usuario
-     */
-    public static String getEstadisticasUsuario(String usuarioId) {
-        List<Tarea> tareasUsuario = getTareasPorUsuario(usuarioId);
-        
-        if (tareasUsuario.isEmpty()) {
-            return "Sin tareas registradas";
-        }
-        
-        long completadas = tareasUsuario.stream().filter(Tarea::isCompletada).count();
-        long pendientes = tareasUsuario.size() - completadas;
-        long vencidas = tareasUsuario.stream()
-            .filter(t -> !t.isCompletada() && t.getFechaVencimiento() != null && 
-                    t.getFechaVencimiento().isBefore(LocalDateTime.now()))
-            .count();
-        
-        return String.format("Total: %d | Completadas: %d | Pendientes: %d | Vencidas: %d", 
-                           tareasUsuario.size(), completadas, pendientes, vencidas);
-    }
 }
@@ -0,0 +1,66 @@
+package com.educativo.bot.interceptores;
+
+import java.util.List;
+
+import com.educativo.bot.interfaces.InterceptorComando;
+
+/**
+ * CADENA DE INTERCEPTORES
+ * 
+ * Envuelve cada llamada a Comando.ejecutar con los interceptores configurados
+ * al iniciar el bot, en el orden en que fueron registrados. El primero de la
+ * lista es el más externo.
+ * 
+ * La cadena es inmutable y se comparte entre todos los hilos: la posición de
+ * cada ejecución vive en el ContextoComando, por lo que recorrerla no crea
+ * objetos. Con la cadena vacía se llama al comando directamente.
+ */
+public final class CadenaInterceptores {
+    
+    private final InterceptorComando[] interceptores;
+    
+    /**
+     * Crea la cadena a partir de la lista de interceptores
+     * 
+     * @param interceptores Interceptores en orden (el primero es el más externo)
+     */
+    public CadenaInterceptores(List<InterceptorComando> interceptores) {
+        this.interceptores = interceptores.toArray(new InterceptorComando[0]);
+    }
+    
+    /**
+     * Ejecuta el comando del contexto pasando por toda la cadena
+     * 
+     * @param contexto Contexto de la invocación
+     * @return Respuesta del comando (o del interceptor que cortó la cadena)
+     */
+    public String ejecutar(ContextoComando contexto) {
+        contexto.posicion = 0;
+        return proceder(contexto);
+    }
+    
+    /**
+     * Continúa con el siguiente interceptor, o ejecuta el comando si ya no quedan
+     * 
+     * @param contexto Contexto de la invocación
+     * @return Respuesta del resto de la cadena
+     */
+    public String proceder(ContextoComando contexto) {
+        int indice = contexto.posicion;
+        if (indice < interceptores.length) {
+            contexto.posicion = indice + 1;
+            return interceptores[indice].interceptar(contexto, this);
+        }
+        
+        return contexto.getComando().ejecutar(contexto.getArgumentos(), contexto.getCanalId(), contexto.getUsuarioId());
+    }
+    
+    /**
+     * Obtiene la cantidad de interceptores configurados
+     * 
+     * @return Número de interceptores
+     */
+    public int getTamanio() {
+        return interceptores.length;
+    }
+}
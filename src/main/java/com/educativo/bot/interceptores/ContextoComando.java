@@ -0,0 +1,115 @@
+package com.educativo.bot.interceptores;
+
+import com.educativo.bot.interfaces.Comando;
+import com.educativo.bot.servicios.ParticionServidor;
+
+/**
+ * CONCEPTO: ENCAPSULAMIENTO
+ * 
+ * Contexto de una invocación de comando. Lo crea ProcesadorComandos por cada
+ * mensaje y lo recorren todos los interceptores de la cadena.
+ * 
+ * Es un objeto pequeño y sin colecciones internas para que crear uno por
+ * comando no tenga costo apreciable.
+ */
+public class ContextoComando {
+    
+    // ENCAPSULAMIENTO: Datos de la invocación (inmutables)
+    private final Comando comando;          // Comando a ejecutar
+    private final String nombreComando;     // Nombre con el que se invocó
+    private final String subcomando;        // Primer argumento en minúsculas ("" si no hay)
+    private final String[] argumentos;      // Argumentos después del nombre del comando
+    private final String usuarioId;         // ID del usuario que ejecutó el comando
+    private final String canalId;           // ID del canal donde se ejecutó
+    private final String servidorId;        // ID del servidor (null en mensajes directos)
+    private final long permisos;            // Máscara de permisos del usuario (ver Permiso)
+    private final ParticionServidor particion; // Datos del servidor donde se ejecutó
+    private final long inicioNanos;         // Momento en que se recibió el comando
+    
+    // Posición actual dentro de la cadena (la administra CadenaInterceptores)
+    int posicion;
+    
+    /**
+     * Constructor del contexto
+     * 
+     * @param comando Comando a ejecutar
+     * @param nombreComando Nombre con el que se invocó
+     * @param argumentos Argumentos del comando
+     * @param usuarioId ID del usuario
+     * @param canalId ID del canal
+     * @param servidorId ID del servidor, o null si es un mensaje directo
+     * @param permisos Máscara de permisos del usuario ya resuelta
+     * @param particion Partición de datos del servidor
+     */
+    public ContextoComando(Comando comando, String nombreComando, String[] argumentos,
+                           String usuarioId, String canalId, String servidorId, long permisos,
+                           ParticionServidor particion) {
+        this.comando = comando;
+        this.nombreComando = nombreComando;
+        this.argumentos = argumentos;
+        this.subcomando = argumentos.length > 0 ? argumentos[0].toLowerCase() : "";
+        this.usuarioId = usuarioId;
+        this.canalId = canalId;
+        this.servidorId = servidorId;
+        this.permisos = permisos;
+        this.particion = particion;
+        this.inicioNanos = System.nanoTime();
+    }
+    
+    // MÉTODOS GETTER
+    
+    public Comando getComando() {
+        return comando;
+    }
+    
+    public String getNombreComando() {
+        return nombreComando;
+    }
+    
+    public String getSubcomando() {
+        return subcomando;
+    }
+    
+    public String[] getArgumentos() {
+        return argumentos;
+    }
+    
+    public String getUsuarioId() {
+        return usuarioId;
+    }
+    
+    public String getCanalId() {
+        return canalId;
+    }
+    
+    public String getServidorId() {
+        return servidorId;
+    }
+    
+    public long getPermisos() {
+        return permisos;
+    }
+    
+    public ParticionServidor getParticion() {
+        return particion;
+    }
+    
+    public long getInicioNanos() {
+        return inicioNanos;
+    }
+    
+    /**
+     * Tiempo transcurrido desde que se recibió el comando
+     * 
+     * @return Nanosegundos transcurridos
+     */
+    public long getTranscurridoNanos() {
+        return System.nanoTime() - inicioNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ContextoComando{comando='%s', subcomando='%s', usuario='%s', canal='%s'}",
+                             nombreComando, subcomando, usuarioId, canalId);
+    }
+}
@@ -0,0 +1,46 @@
+package com.educativo.bot.interceptores;
+
+import java.util.Set;
+
+import com.educativo.bot.interfaces.InterceptorComando;
+import com.educativo.bot.interfaces.RespuestaCacheable;
+import com.educativo.bot.servicios.CacheRespuestas;
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
+
+/**
+ * INTERCEPTOR DE CACHÉ
+ * 
+ * Para los comandos que implementan RespuestaCacheable, devuelve la respuesta
+ * guardada mientras no cambien los datos de los que depende. El resto de los
+ * comandos pasan sin cambios.
+ * 
+ * Cada servidor tiene su propia caché (la de su partición), versionada con
+ * sus propios datos: escribir en un servidor no invalida las de los demás.
+ */
+public class InterceptorCache implements InterceptorComando {
+    
+    @Override
+    public String interceptar(ContextoComando contexto, CadenaInterceptores cadena) {
+        if (!(contexto.getComando() instanceof RespuestaCacheable)) {
+            return cadena.proceder(contexto);
+        }
+        
+        Set<Dominio> dependencias = ((RespuestaCacheable) contexto.getComando())
+                .dependenciasRespuesta(contexto.getArgumentos());
+        if (dependencias == null) {
+            return cadena.proceder(contexto);
+        }
+        
+        CacheRespuestas cache = contexto.getParticion().getCacheRespuestas();
+        String clave = contexto.getNombreComando() + " " + String.join(" ", contexto.getArgumentos());
+        String respuesta = cache.obtener(clave, dependencias);
+        if (respuesta != null) {
+            return respuesta;
+        }
+        
+        long[] versiones = cache.capturarVersiones(dependencias);
+        respuesta = cadena.proceder(contexto);
+        cache.guardar(clave, respuesta, versiones);
+        return respuesta;
+    }
+}
@@ -0,0 +1,22 @@
+package com.educativo.bot.interceptores;
+
+import com.educativo.bot.interfaces.InterceptorComando;
+
+/**
+ * INTERCEPTOR DE ERRORES
+ * 
+ * Captura cualquier excepción lanzada por el resto de la cadena y la
+ * convierte en un mensaje amigable para el usuario. Debe ser el más externo.
+ */
+public class InterceptorErrores implements InterceptorComando {
+    
+    @Override
+    public String interceptar(ContextoComando contexto, CadenaInterceptores cadena) {
+        try {
+            return cadena.proceder(contexto);
+        } catch (Exception e) {
+            System.err.println("Error procesando comando " + contexto.getNombreComando() + ": " + e.getMessage());
+            return "❌ Error interno del bot. Intenta de nuevo más tarde.";
+        }
+    }
+}
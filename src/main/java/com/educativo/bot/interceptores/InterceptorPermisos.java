@@ -0,0 +1,20 @@
+package com.educativo.bot.interceptores;
+
+import com.educativo.bot.interfaces.InterceptorComando;
+
+/**
+ * INTERCEPTOR DE PERMISOS
+ * 
+ * Corta la cadena si el usuario no tiene permisos para el comando.
+ * POLIMORFISMO: cada comando decide sus permisos con tienePermisos().
+ */
+public class InterceptorPermisos implements InterceptorComando {
+    
+    @Override
+    public String interceptar(ContextoComando contexto, CadenaInterceptores cadena) {
+        if (!contexto.getComando().tienePermisos(contexto.getPermisos())) {
+            return "❌ No tienes permisos para ejecutar este comando.";
+        }
+        return cadena.proceder(contexto);
+    }
+}
@@ -0,0 +1,49 @@
+package com.educativo.bot.interceptores;
+
+import com.educativo.bot.interfaces.GestorDatos;
+import com.educativo.bot.interfaces.InterceptorComando;
+
+/**
+ * INTERCEPTOR DE REGISTRO DE USO
+ * 
+ * Registra el uso de cada comando ejecutado con éxito para estadísticas,
+ * junto con la última actividad del usuario.
+ * 
+ * Los contadores se guardan en el archivo de datos del servidor donde se
+ * ejecutó el comando (el de su partición).
+ */
+public class InterceptorRegistroUso implements InterceptorComando {
+    
+    @Override
+    public String interceptar(ContextoComando contexto, CadenaInterceptores cadena) {
+        String respuesta = cadena.proceder(contexto);
+        registrarUsoComando(contexto.getParticion().getGestorDatos(), contexto.getNombreComando(),
+                contexto.getUsuarioId());
+        return respuesta;
+    }
+    
+    /**
+     * Registra el uso de un comando para estadísticas
+     * 
+     * @param gestorDatos Persistencia del servidor
+     * @param nombreComando Nombre del comando usado
+     * @param usuarioId ID del usuario que lo usó
+     */
+    private void registrarUsoComando(GestorDatos gestorDatos, String nombreComando, String usuarioId) {
+        try {
+            // Obtener estadísticas actuales
+            String clave = "stats_comando_" + nombreComando;
+            Object valor = gestorDatos.obtener(clave);
+            int usos = valor instanceof Number ? ((Number) valor).intValue() : 0;
+            
+            // Incrementar y guardar
+            gestorDatos.guardar(clave, usos + 1);
+            
+            // Registrar última actividad del usuario
+            gestorDatos.guardar("ultima_actividad_" + usuarioId, System.currentTimeMillis());
+            
+        } catch (Exception e) {
+            System.err.println("Error registrando uso de comando: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.educativo.bot.interceptores;
+
+import com.educativo.bot.interfaces.InterceptorComando;
+
+/**
+ * INTERCEPTOR DE TIEMPOS
+ * 
+ * Mide cuánto tarda cada comando y avisa por consola cuando supera
+ * el umbral configurado.
+ */
+public class InterceptorTiempo implements InterceptorComando {
+    
+    private final long umbralNanos;
+    
+    /**
+     * @param umbralMilisegundos Duración a partir de la cual se informa un comando lento
+     */
+    public InterceptorTiempo(long umbralMilisegundos) {
+        this.umbralNanos = umbralMilisegundos * 1_000_000L;
+    }
+    
+    @Override
+    public String interceptar(ContextoComando contexto, CadenaInterceptores cadena) {
+        String respuesta = cadena.proceder(contexto);
+        
+        long transcurrido = contexto.getTranscurridoNanos();
+        if (transcurrido >= umbralNanos) {
+            System.out.println("🐢 Comando lento: !" + contexto.getNombreComando() + " " + contexto.getSubcomando() +
+                               " (" + (transcurrido / 1_000_000L) + " ms)");
+        }
+        return respuesta;
+    }
+}
@@ -47,8 +47,8 @@ public interface Comando {
     /**
      * Verifica si el usuario tiene permisos para ejecutar este comando
      * 
-     * @param usuarioId ID del usuario
+     * @param permisosUsuario Máscara de permisos del usuario (ver Permiso)
      * @return true si tiene permisos, false si no
      */
-    boolean tienePermisos(String usuarioId);
+    boolean tienePermisos(long permisosUsuario);
 }
@@ -0,0 +1,18 @@
+package com.educativo.bot.interfaces;
+
+/**
+ * CONCEPTO: INTERFACES (salida de mensajes fuera de un comando)
+ * 
+ * Permite a los servicios enviar mensajes por su cuenta (por ejemplo,
+ * recordatorios) sin depender directamente de JDA.
+ */
+public interface EntregaMensajes {
+    
+    /**
+     * Envía un mensaje directo a un usuario
+     * 
+     * @param usuarioId ID de Discord del destinatario
+     * @param mensaje Contenido del mensaje
+     */
+    void enviarMensajeDirecto(String usuarioId, String mensaje);
+}
@@ -0,0 +1,27 @@
+package com.educativo.bot.interfaces;
+
+import com.educativo.bot.interceptores.CadenaInterceptores;
+import com.educativo.bot.interceptores.ContextoComando;
+
+/**
+ * CONCEPTO: INTERFACES (cadena de responsabilidad)
+ * 
+ * Un interceptor envuelve la ejecución de un comando para agregar
+ * comportamiento transversal (permisos, registro de uso, manejo de errores,
+ * medición de tiempos, caché...) sin modificar los comandos.
+ * 
+ * Cada interceptor decide si continúa la cadena llamando a
+ * {@code cadena.proceder(contexto)} o si corta la ejecución devolviendo
+ * directamente una respuesta.
+ */
+public interface InterceptorComando {
+    
+    /**
+     * Intercepta la ejecución de un comando
+     * 
+     * @param contexto Datos de la invocación (usuario, canal, comando, subcomando, tiempos)
+     * @param cadena Resto de la cadena; llamar a proceder() para continuar
+     * @return Mensaje de respuesta para enviar al canal
+     */
+    String interceptar(ContextoComando contexto, CadenaInterceptores cadena);
+}
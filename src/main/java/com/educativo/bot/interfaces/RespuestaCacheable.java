@@ -0,0 +1,24 @@
+package com.educativo.bot.interfaces;
+
+import java.util.Set;
+
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
+
+/**
+ * CONCEPTO: INTERFACES (capacidades opcionales)
+ * 
+ * Los comandos que implementan esta interfaz indican qué respuestas son de
+ * solo lectura y de qué datos dependen. Así el InterceptorCache puede
+ * devolver la respuesta anterior mientras esos datos no cambien.
+ */
+public interface RespuestaCacheable {
+    
+    /**
+     * Indica de qué datos depende la respuesta para estos argumentos
+     * 
+     * @param args Argumentos del comando
+     * @return Dominios de los que depende (vacío si no depende de ninguno),
+     *         o null si la respuesta no se puede cachear
+     */
+    Set<Dominio> dependenciasRespuesta(String[] args);
+}
@@ -0,0 +1,41 @@
+package com.educativo.bot.interfaces;
+
+/**
+ * CONCEPTO: INTERFACES (capacidades opcionales)
+ * 
+ * Los comandos que implementan esta interfaz devuelven sus listados largos
+ * de a una página. BotEducativo envía la primera con botones de anterior y
+ * siguiente, y cuando se pulsa uno le pide al comando solo esa página, en
+ * lugar de mandar el listado completo partido en varios mensajes.
+ */
+public interface RespuestaPaginada {
+    
+    /**
+     * Indica si la última ejecución con estos argumentos dejó un listado paginado
+     * 
+     * @param args Argumentos con los que se ejecutó el comando
+     * @param usuarioId ID del usuario que lo ejecutó
+     * @return ID del listado si tiene más de una página, o null si la respuesta
+     *         ya está completa
+     */
+    String getListado(String[] args, String usuarioId);
+    
+    /**
+     * Cantidad de páginas de un listado
+     * 
+     * @param usuarioId ID del dueño del listado
+     * @param listadoId ID devuelto por getListado
+     * @return Número de páginas, o 0 si el listado ya no está disponible
+     */
+    int getPaginas(String usuarioId, String listadoId);
+    
+    /**
+     * Dibuja una sola página de un listado
+     * 
+     * @param usuarioId ID del dueño del listado
+     * @param listadoId ID devuelto por getListado
+     * @param pagina Número de página (desde 1)
+     * @return Texto de la página, o null si el listado ya no está disponible
+     */
+    String renderizarPagina(String usuarioId, String listadoId, int pagina);
+}
@@ -1,3 +1,5 @@
+package com.educativo.bot.modelos;
+
 public class Docente {
     
     // ENCAPSULAMIENTO: Todos los atributos son privados
@@ -2,16 +2,15 @@ package com.educativo.bot.modelos;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * CONCEPTO: ENCAPSULAMIENTO Y COMPOSICIÓN
  * 
- * Esta clase representa una materia académica que puede contener múltiples tareas.
+ * Esta clase representa una materia académica a la que se asocian tareas.
  * Demuestra:
  * 1. Encapsulamiento - atributos privados con métodos de acceso controlado
- * 2. Composición - una materia "tiene" una lista de tareas
+ * 2. Composición - las tareas de cada materia las lleva AlmacenTareas
+ *    (un conjunto por materia), no la materia misma
  * 3. Validación de datos en métodos setter
  * 4. Métodos utilitarios para obtener información procesada
  */
@@ -25,7 +24,6 @@ public class Materia {
     private String profesor;                // Nombre del profesor
     private LocalDateTime fechaCreacion;    // Cuándo se creó la materia
     private String creadorId;               // ID del usuario que creó la materia
-    private List<String> tareasIds;         // IDs de las tareas asociadas (composición)
     private String color;                   // Color para identificar la materia
     private boolean activa;                 // Si la materia está activa o archivada
     
@@ -57,7 +55,6 @@ public class Materia {
         this.profesor = profesor != null ? profesor.trim() : "Sin asignar";
         this.creadorId = creadorId;
         this.fechaCreacion = LocalDateTime.now();
-        this.tareasIds = new ArrayList<>();
         this.color = generarColorAleatorio();
         this.activa = true;
     }
@@ -104,10 +101,6 @@ public class Materia {
         return creadorId;
     }
     
-    public List<String> getTareasIds() {
-        return new ArrayList<>(tareasIds); // Devolvemos una copia para mantener encapsulamiento
-    }
-    
     public String getColor() {
         return color;
     }
@@ -148,50 +141,23 @@ public class Materia {
         this.activa = activa;
     }
     
-    // MÉTODOS DE GESTIÓN DE TAREAS - Demuestran composición
-    
-    /**
-     * Agrega una tarea a la materia
-     * 
-     * @param tareaId ID de la tarea a agregar
-     */
-    public void agregarTarea(String tareaId) {
-        if (tareaId != null && !tareasIds.contains(tareaId)) {
-            tareasIds.add(tareaId);
-        }
-    }
-    
-    /**
-     * Elimina una tarea de la materia
-     * 
-     * @param tareaId ID de la tarea a eliminar
-     * @return true si se eliminó, false si no existía
-     */
-    public boolean eliminarTarea(String tareaId) {
-        return tareasIds.remove(tareaId);
-    }
-    
-    /**
-     * Verifica si la materia contiene una tarea específica
-     * 
-     * @param tareaId ID de la tarea a verificar
-     * @return true si contiene la tarea
-     */
-    public boolean tieneTarea(String tareaId) {
-        return tareasIds.contains(tareaId);
-    }
+    // MÉTODOS UTILITARIOS
     
     /**
-     * Obtiene el número de tareas asociadas
+     * Crea una copia independiente de la materia
+     * El índice de materias modifica copias para no alterar las materias que
+     * otros hilos pueden estar leyendo
      * 
-     * @return Cantidad de tareas
+     * @return Copia con los mismos valores (mismo ID, así que equals() es true)
      */
-    public int getCantidadTareas() {
-        return tareasIds.size();
+    public Materia copiar() {
+        Materia copia = new Materia(id, nombre, codigo, descripcion, profesor, creadorId);
+        copia.fechaCreacion = fechaCreacion;
+        copia.color = color;
+        copia.activa = activa;
+        return copia;
     }
     
-    // MÉTODOS UTILITARIOS
-    
     /**
      * Genera un color aleatorio para la materia
      * 
@@ -231,8 +197,7 @@ public class Materia {
             resumen.append("👨‍🏫 Profesor: ").append(profesor).append("\n");
         }
         
-        resumen.append("📊 Tareas: ").append(getCantidadTareas());
-        resumen.append(" | Estado: ").append(activa ? "Activa" : "Archivada");
+        resumen.append("📋 Estado: ").append(activa ? "Activa" : "Archivada");
         
         return resumen.toString();
     }
@@ -254,7 +219,6 @@ public class Materia {
         
         info.append("👨‍🏫 **Profesor:** ").append(profesor).append("\n");
         info.append("📅 **Creada:** ").append(fechaCreacion.format(formatter)).append("\n");
-        info.append("📊 **Tareas asociadas:** ").append(getCantidadTareas()).append("\n");
         info.append("🎨 **Color:** ").append(color).append("\n");
         info.append("📋 **Estado:** ").append(activa ? "✅ Activa" : "📦 Archivada").append("\n");
         
@@ -0,0 +1,53 @@
+package com.educativo.bot.modelos;
+
+/**
+ * PERMISOS DEL BOT
+ * 
+ * Cada permiso ocupa un bit, de modo que los permisos de un usuario se
+ * guardan en un único long y verificar si alcanzan para un comando es
+ * una operación AND de tiempo constante.
+ */
+public enum Permiso {
+    ADMINISTRADOR,   // Administrador del servidor
+    MODERADOR,       // Puede moderar contenido del bot
+    DOCENTE;         // Docente de la institución
+    
+    private final long bit;
+    
+    Permiso() {
+        this.bit = 1L << ordinal();
+    }
+    
+    /**
+     * Obtiene el bit que representa este permiso
+     * 
+     * @return Máscara con un único bit encendido
+     */
+    public long getBit() {
+        return bit;
+    }
+    
+    /**
+     * Verifica si una máscara de permisos incluye este permiso
+     * 
+     * @param permisos Máscara de permisos del usuario
+     * @return true si lo incluye
+     */
+    public boolean en(long permisos) {
+        return (permisos & bit) != 0;
+    }
+    
+    /**
+     * Combina varios permisos en una máscara
+     * 
+     * @param permisos Permisos a combinar
+     * @return Máscara con los bits de todos los permisos
+     */
+    public static long mascara(Permiso... permisos) {
+        long mascara = 0;
+        for (Permiso permiso : permisos) {
+            mascara |= permiso.bit;
+        }
+        return mascara;
+    }
+}
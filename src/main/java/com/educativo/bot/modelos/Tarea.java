@@ -189,6 +189,21 @@ public class Tarea {
     
     // MÉTODOS DE UTILIDAD
     
+    /**
+     * Crea una copia independiente de la tarea
+     * El almacén modifica copias para no alterar las tareas que otros hilos
+     * pueden estar leyendo
+     * 
+     * @return Copia con los mismos valores (incluida la fecha de creación)
+     */
+    public Tarea copiar() {
+        Tarea copia = new Tarea(id, titulo, descripcion, materia, creadorId, prioridad);
+        copia.fechaCreacion = fechaCreacion;
+        copia.fechaVencimiento = fechaVencimiento;
+        copia.completada = completada;
+        return copia;
+    }
+    
     /**
      * Obtiene el texto de prioridad legible para humanos
      * Demuestra encapsulamiento al proporcionar una vista procesada de los datos
@@ -0,0 +1,121 @@
+package com.educativo.bot.servicios;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * AGRUPADOR DE BIENVENIDAS
+ * 
+ * Cuando entran muchos miembros a la vez (por ejemplo, al compartir una
+ * invitación en clase), en lugar de un mensaje por persona se junta a todos
+ * los que ingresaron al mismo servidor dentro de una ventana corta y se
+ * envía una sola bienvenida.
+ * 
+ * La ventana empieza con el primer ingreso: el envío se programa una sola
+ * vez por ráfaga, así una ráfaga larga no lo posterga indefinidamente.
+ */
+public class AgrupadorBienvenidas {
+    
+    // ENCAPSULAMIENTO: servidorId -> usuarios que esperan su bienvenida (protegido por su monitor)
+    private final Map<String, List<String>> pendientesPorServidor = new HashMap<>();
+    private final ScheduledExecutorService programador;
+    private final long ventanaMs;
+    private final BiConsumer<String, List<String>> envio;
+    
+    /**
+     * @param programador Ejecutor donde se programan los envíos
+     * @param ventanaMs Cuánto esperar desde el primer ingreso de una ráfaga
+     * @param envio Recibe el ID del servidor y los usuarios a saludar
+     */
+    public AgrupadorBienvenidas(ScheduledExecutorService programador, long ventanaMs,
+                                BiConsumer<String, List<String>> envio) {
+        this.programador = programador;
+        this.ventanaMs = ventanaMs;
+        this.envio = envio;
+    }
+    
+    /**
+     * Registra el ingreso de un miembro
+     * 
+     * @param servidorId ID del servidor
+     * @param usuarioId ID del usuario que ingresó
+     */
+    public void registrarIngreso(String servidorId, String usuarioId) {
+        boolean primeroDeRafaga;
+        synchronized (pendientesPorServidor) {
+            List<String> pendientes = pendientesPorServidor.get(servidorId);
+            primeroDeRafaga = pendientes == null;
+            if (primeroDeRafaga) {
+                pendientes = new ArrayList<>();
+                pendientesPorServidor.put(servidorId, pendientes);
+            }
+            pendientes.add(usuarioId);
+        }
+        
+        if (primeroDeRafaga) {
+            programador.schedule(() -> enviar(servidorId), ventanaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Envía ya todas las bienvenidas en espera, sin esperar a que se cierre
+     * su ventana (al apagar el bot)
+     * 
+     * @return Cantidad de usuarios saludados
+     */
+    public int enviarTodas() {
+        List<String> servidores;
+        synchronized (pendientesPorServidor) {
+            servidores = new ArrayList<>(pendientesPorServidor.keySet());
+        }
+        
+        int saludados = 0;
+        for (String servidorId : servidores) {
+            saludados += enviar(servidorId);
+        }
+        return saludados;
+    }
+    
+    /**
+     * Cantidad de usuarios esperando su bienvenida
+     * 
+     * @return Número de ingresos pendientes en todos los servidores
+     */
+    public int getPendientes() {
+        synchronized (pendientesPorServidor) {
+            int total = 0;
+            for (List<String> pendientes : pendientesPorServidor.values()) {
+                total += pendientes.size();
+            }
+            return total;
+        }
+    }
+    
+    /**
+     * Envía la bienvenida de la ráfaga de un servidor
+     * 
+     * @return Cantidad de usuarios saludados
+     */
+    private int enviar(String servidorId) {
+        List<String> usuarios;
+        synchronized (pendientesPorServidor) {
+            usuarios = pendientesPorServidor.remove(servidorId);
+        }
+        if (usuarios == null || usuarios.isEmpty()) {
+            return 0;
+        }
+        
+        try {
+            envio.accept(servidorId, usuarios);
+            return usuarios.size();
+        } catch (Exception e) {
+            System.err.println("❌ Error al enviar bienvenida agrupada: " + e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,713 @@
+package com.educativo.bot.servicios;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
+import org.pcollections.PSortedSet;
+import org.pcollections.TreePSet;
+
+import com.educativo.bot.modelos.Tarea;
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
+
+/**
+ * ALMACÉN DE TAREAS INDEXADO
+ * 
+ * Guarda todas las tareas del bot con índices para que las operaciones de un
+ * usuario no tengan que recorrer las tareas de todos los demás:
+ * 
+ * - id -> tarea (búsqueda directa)
+ * - creador -> tareas en orden de creación
+ * - creador -> tareas ordenadas por prioridad (listados)
+ * - materia -> tareas (conjunto hasheado por ID, se ordena solo al listar)
+ *   y cantidad de completadas
+ * - pendientes con vencimiento futuro, ordenadas por fecha de vencimiento
+ * - creador / materia -> tareas vencidas
+ * - índice invertido de título y descripción, por creador (búsquedas)
+ * 
+ * Cuando pasa la fecha de una tarea pendiente, actualizarVencimientos() la
+ * saca del frente del índice de próximas y la mueve a vencidas: solo se
+ * tocan las tareas que acaban de vencer, nunca se recorre todo el almacén.
+ * 
+ * CONCURRENCIA (instantáneas): todos los índices viven en un Estado inmutable
+ * hecho de colecciones persistentes, publicado en una referencia atómica.
+ * - Las lecturas toman el estado actual sin bloquear y ven todos los índices
+ *   consistentes entre sí, aunque otro hilo esté escribiendo.
+ * - Las escrituras arman un estado nuevo (compartiendo casi toda la estructura
+ *   con el anterior) y lo publican con compareAndSet; si otro hilo se
+ *   adelantó, se reintenta sobre el estado más reciente.
+ * - Las tareas publicadas no se modifican: cambiar una tarea crea una copia,
+ *   y los métodos de escritura devuelven la versión nueva.
+ */
+public class AlmacenTareas {
+    
+    /**
+     * Orden de los listados: prioridad (alta a baja), luego fecha de creación
+     * El ID desempata tareas creadas en el mismo instante
+     */
+    public static final Comparator<Tarea> ORDEN_PRIORIDAD = Comparator
+            .comparingInt(Tarea::getPrioridad).reversed()
+            .thenComparing(Tarea::getFechaCreacion)
+            .thenComparing(Tarea::getId);
+    
+    /**
+     * Orden del índice de vencimientos: fecha de vencimiento, luego ID
+     * Solo se usa con tareas que tienen fecha de vencimiento
+     */
+    public static final Comparator<Tarea> ORDEN_VENCIMIENTO = Comparator
+            .comparing(Tarea::getFechaVencimiento)
+            .thenComparing(Tarea::getId);
+    
+    /**
+     * Orden de creación (el ID desempata tareas creadas en el mismo instante)
+     */
+    public static final Comparator<Tarea> ORDEN_CREACION = Comparator
+            .comparing(Tarea::getFechaCreacion)
+            .thenComparing(Tarea::getId);
+    
+    /**
+     * Instantánea inmutable de todos los índices
+     */
+    private static final class Estado {
+        private static final Estado VACIO = new Estado(HashTreePMap.empty(), HashTreePMap.empty(),
+                HashTreePMap.empty(), HashTreePMap.empty(), HashTreePMap.empty(),
+                TreePSet.empty(ORDEN_VENCIMIENTO), HashTreePMap.empty(), HashTreePMap.empty());
+        
+        private final PMap<String, Tarea> porId;
+        private final PMap<String, PSortedSet<Tarea>> porCreador;
+        private final PMap<String, PSortedSet<Tarea>> porCreadorPrioridad;
+        private final PMap<String, PMap<String, Tarea>> porMateria;
+        private final PMap<String, Integer> completadasPorMateria;
+        private final PSortedSet<Tarea> proximas;
+        private final PMap<String, PSortedSet<Tarea>> vencidasPorCreador;
+        private final PMap<String, PSortedSet<Tarea>> vencidasPorMateria;
+        
+        private Estado(PMap<String, Tarea> porId, PMap<String, PSortedSet<Tarea>> porCreador,
+                       PMap<String, PSortedSet<Tarea>> porCreadorPrioridad, PMap<String, PMap<String, Tarea>> porMateria,
+                       PMap<String, Integer> completadasPorMateria, PSortedSet<Tarea> proximas,
+                       PMap<String, PSortedSet<Tarea>> vencidasPorCreador,
+                       PMap<String, PSortedSet<Tarea>> vencidasPorMateria) {
+            this.porId = porId;
+            this.porCreador = porCreador;
+            this.porCreadorPrioridad = porCreadorPrioridad;
+            this.porMateria = porMateria;
+            this.completadasPorMateria = completadasPorMateria;
+            this.proximas = proximas;
+            this.vencidasPorCreador = vencidasPorCreador;
+            this.vencidasPorMateria = vencidasPorMateria;
+        }
+    }
+    
+    /**
+     * Cambios en curso sobre una instantánea. Parte del estado leído, aplica
+     * altas y bajas de tareas en todos los índices y al final produce el
+     * estado nuevo. También acumula las diferencias para las estadísticas,
+     * que solo se aplican si el estado se publica.
+     */
+    private static final class Transaccion {
+        private final Estado base;
+        private PMap<String, Tarea> porId;
+        private PMap<String, PSortedSet<Tarea>> porCreador;
+        private PMap<String, PSortedSet<Tarea>> porCreadorPrioridad;
+        private PMap<String, PMap<String, Tarea>> porMateria;
+        private PMap<String, Integer> completadasPorMateria;
+        private PSortedSet<Tarea> proximas;
+        private PMap<String, PSortedSet<Tarea>> vencidasPorCreador;
+        private PMap<String, PSortedSet<Tarea>> vencidasPorMateria;
+        private int diferenciaTareas;
+        private int diferenciaCompletadas;
+        private boolean modificada;
+        
+        private Transaccion(Estado base) {
+            this.base = base;
+            this.porId = base.porId;
+            this.porCreador = base.porCreador;
+            this.porCreadorPrioridad = base.porCreadorPrioridad;
+            this.porMateria = base.porMateria;
+            this.completadasPorMateria = base.completadasPorMateria;
+            this.proximas = base.proximas;
+            this.vencidasPorCreador = base.vencidasPorCreador;
+            this.vencidasPorMateria = base.vencidasPorMateria;
+        }
+        
+        private Tarea buscar(String tareaId) {
+            return porId.get(tareaId);
+        }
+        
+        /**
+         * Agrega una tarea a todos los índices
+         */
+        private void poner(Tarea tarea, LocalDateTime ahora) {
+            porId = porId.plus(tarea.getId(), tarea);
+            porCreador = agregarA(porCreador, tarea.getCreadorId(), tarea, ORDEN_CREACION);
+            porCreadorPrioridad = agregarA(porCreadorPrioridad, tarea.getCreadorId(), tarea, ORDEN_PRIORIDAD);
+            porMateria = agregarAMateria(porMateria, tarea);
+            if (tarea.isCompletada()) {
+                completadasPorMateria = completadasPorMateria.plus(tarea.getMateria(),
+                        completadasPorMateria.getOrDefault(tarea.getMateria(), 0) + 1);
+                diferenciaCompletadas++;
+            } else if (tarea.getFechaVencimiento() != null) {
+                if (tarea.getFechaVencimiento().isBefore(ahora)) {
+                    agregarVencida(tarea);
+                } else {
+                    proximas = proximas.plus(tarea);
+                }
+            }
+            diferenciaTareas++;
+            modificada = true;
+        }
+        
+        /**
+         * Quita de todos los índices la versión publicada de una tarea
+         */
+        private void quitar(Tarea tarea) {
+            porId = porId.minus(tarea.getId());
+            porCreador = quitarDe(porCreador, tarea.getCreadorId(), tarea);
+            porCreadorPrioridad = quitarDe(porCreadorPrioridad, tarea.getCreadorId(), tarea);
+            porMateria = quitarDeMateria(porMateria, tarea);
+            if (tarea.isCompletada()) {
+                int cantidad = completadasPorMateria.getOrDefault(tarea.getMateria(), 0);
+                completadasPorMateria = cantidad > 1
+                        ? completadasPorMateria.plus(tarea.getMateria(), cantidad - 1)
+                        : completadasPorMateria.minus(tarea.getMateria());
+                diferenciaCompletadas--;
+            } else if (tarea.getFechaVencimiento() != null) {
+                if (proximas.contains(tarea)) {
+                    proximas = proximas.minus(tarea);
+                } else {
+                    vencidasPorCreador = quitarDe(vencidasPorCreador, tarea.getCreadorId(), tarea);
+                    vencidasPorMateria = quitarDe(vencidasPorMateria, tarea.getMateria(), tarea);
+                }
+            }
+            diferenciaTareas--;
+            modificada = true;
+        }
+        
+        /**
+         * Reemplaza la versión publicada de una tarea por una nueva
+         */
+        private void reemplazar(Tarea anterior, Tarea nueva, LocalDateTime ahora) {
+            quitar(anterior);
+            poner(nueva, ahora);
+        }
+        
+        /**
+         * Mueve a vencidas las próximas cuya fecha ya pasó
+         */
+        private int moverVencidas(LocalDateTime ahora) {
+            int movidas = 0;
+            while (!proximas.isEmpty() && proximas.first().getFechaVencimiento().isBefore(ahora)) {
+                Tarea tarea = proximas.first();
+                proximas = proximas.minusFirst();
+                agregarVencida(tarea);
+                movidas++;
+            }
+            modificada |= movidas > 0;
+            return movidas;
+        }
+        
+        private void agregarVencida(Tarea tarea) {
+            vencidasPorCreador = agregarA(vencidasPorCreador, tarea.getCreadorId(), tarea, ORDEN_VENCIMIENTO);
+            vencidasPorMateria = agregarA(vencidasPorMateria, tarea.getMateria(), tarea, ORDEN_VENCIMIENTO);
+        }
+        
+        private Estado confirmar() {
+            return new Estado(porId, porCreador, porCreadorPrioridad, porMateria, completadasPorMateria,
+                    proximas, vencidasPorCreador, vencidasPorMateria);
+        }
+        
+        private static PMap<String, PSortedSet<Tarea>> agregarA(PMap<String, PSortedSet<Tarea>> indice, String clave,
+                                                                Tarea tarea, Comparator<Tarea> orden) {
+            PSortedSet<Tarea> conjunto = indice.get(clave);
+            return indice.plus(clave, (conjunto == null ? TreePSet.empty(orden) : conjunto).plus(tarea));
+        }
+        
+        private static PMap<String, PSortedSet<Tarea>> quitarDe(PMap<String, PSortedSet<Tarea>> indice, String clave,
+                                                                Tarea tarea) {
+            PSortedSet<Tarea> conjunto = indice.get(clave);
+            if (conjunto == null) {
+                return indice;
+            }
+            PSortedSet<Tarea> restante = conjunto.minus(tarea);
+            return restante.isEmpty() ? indice.minus(clave) : indice.plus(clave, restante);
+        }
+        
+        /**
+         * Las tareas de cada materia solo se cuentan y se consultan por
+         * pertenencia, así que se guardan por ID (hasheadas) en vez de en un
+         * conjunto ordenado; getTareasDeMateria() ordena al listar
+         */
+        private static PMap<String, PMap<String, Tarea>> agregarAMateria(PMap<String, PMap<String, Tarea>> indice,
+                                                                         Tarea tarea) {
+            PMap<String, Tarea> conjunto = indice.get(tarea.getMateria());
+            return indice.plus(tarea.getMateria(),
+                    (conjunto == null ? HashTreePMap.<String, Tarea>empty() : conjunto).plus(tarea.getId(), tarea));
+        }
+        
+        private static PMap<String, PMap<String, Tarea>> quitarDeMateria(PMap<String, PMap<String, Tarea>> indice,
+                                                                         Tarea tarea) {
+            PMap<String, Tarea> conjunto = indice.get(tarea.getMateria());
+            if (conjunto == null) {
+                return indice;
+            }
+            PMap<String, Tarea> restante = conjunto.minus(tarea.getId());
+            return restante.isEmpty() ? indice.minus(tarea.getMateria()) : indice.plus(tarea.getMateria(), restante);
+        }
+    }
+    
+    /**
+     * Cambio a aplicar sobre una transacción
+     * 
+     * @param <R> Resultado que devuelve la escritura
+     */
+    private interface Cambio<R> {
+        R aplicar(Transaccion transaccion, LocalDateTime ahora);
+    }
+    
+    // ENCAPSULAMIENTO: Estado publicado (lecturas sin bloqueo)
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.VACIO);
+    private final IndiceBusqueda indiceTexto = new IndiceBusqueda();
+    private final VersionesDatos versiones;
+    private final EstadisticasGlobales estadisticas;
+    
+    /**
+     * @param versiones Versiones de datos a incrementar en cada escritura
+     * @param estadisticas Contadores globales a mantener en cada escritura
+     */
+    public AlmacenTareas(VersionesDatos versiones, EstadisticasGlobales estadisticas) {
+        this.versiones = versiones;
+        this.estadisticas = estadisticas;
+    }
+    
+    // ========================
+    // ESCRITURAS
+    // ========================
+    
+    /**
+     * Agrega una tarea nueva a todos los índices
+     * 
+     * @param tarea Tarea a agregar (el almacén no la modifica después)
+     */
+    public void agregar(Tarea tarea) {
+        boolean agregada = escribir((tx, ahora) -> {
+            if (tx.buscar(tarea.getId()) != null) {
+                return false;
+            }
+            tx.poner(tarea, ahora);
+            return true;
+        });
+        if (agregada) {
+            indiceTexto.indexar(tarea.getCreadorId(), tarea.getId(), tarea.getTitulo(), tarea.getDescripcion());
+        }
+    }
+    
+    /**
+     * Carga de una vez las tareas de una instantánea (reinicio en caliente)
+     * Todas entran en una sola transacción: un estado nuevo y una publicación
+     * 
+     * @param cargadas Tareas leídas de la instantánea
+     * @return Cantidad de tareas cargadas (se omiten IDs repetidos)
+     */
+    public int cargarInstantanea(List<Tarea> cargadas) {
+        List<Tarea> agregadas = escribir((tx, ahora) -> {
+            List<Tarea> nuevas = new ArrayList<>();
+            for (Tarea tarea : cargadas) {
+                if (tx.buscar(tarea.getId()) == null) {
+                    tx.poner(tarea, ahora);
+                    nuevas.add(tarea);
+                }
+            }
+            return nuevas;
+        });
+        for (Tarea tarea : agregadas) {
+            indiceTexto.indexar(tarea.getCreadorId(), tarea.getId(), tarea.getTitulo(), tarea.getDescripcion());
+        }
+        return agregadas.size();
+    }
+    
+    /**
+     * Elimina una tarea de todos los índices
+     * 
+     * @param tarea Tarea a eliminar
+     * @return true si existía
+     */
+    public boolean eliminar(Tarea tarea) {
+        boolean eliminada = escribir((tx, ahora) -> {
+            Tarea actual = tx.buscar(tarea.getId());
+            if (actual == null) {
+                return false;
+            }
+            tx.quitar(actual);
+            return true;
+        });
+        if (eliminada) {
+            indiceTexto.quitar(tarea.getCreadorId(), tarea.getId());
+        }
+        return eliminada;
+    }
+    
+    /**
+     * Cambia la prioridad de una tarea reubicándola en el índice ordenado
+     * 
+     * @param tarea Tarea a modificar
+     * @param nuevaPrioridad Nueva prioridad (1-3)
+     * @return La versión nueva de la tarea, o null si ya no existe
+     */
+    public Tarea cambiarPrioridad(Tarea tarea, int nuevaPrioridad) {
+        return escribir((tx, ahora) -> {
+            Tarea actual = tx.buscar(tarea.getId());
+            if (actual == null) {
+                return null;
+            }
+            Tarea nueva = actual.copiar();
+            nueva.setPrioridad(nuevaPrioridad);
+            tx.reemplazar(actual, nueva, ahora);
+            return nueva;
+        });
+    }
+    
+    /**
+     * Marca una tarea como completada
+     * Si dos hilos completan la misma tarea, solo uno obtiene la versión nueva
+     * 
+     * @param tarea Tarea a completar
+     * @return La versión completada, o null si ya estaba completada o no existe
+     */
+    public Tarea completar(Tarea tarea) {
+        return escribir((tx, ahora) -> {
+            Tarea actual = tx.buscar(tarea.getId());
+            if (actual == null || actual.isCompletada()) {
+                return null;
+            }
+            Tarea nueva = actual.copiar();
+            nueva.setCompletada(true);
+            tx.reemplazar(actual, nueva, ahora);
+            return nueva;
+        });
+    }
+    
+    /**
+     * Completa varias tareas en una sola escritura atómica
+     * O se publican todas juntas o ninguna, y versiones y estadísticas se
+     * actualizan una sola vez para todo el lote
+     * 
+     * @param lote Tareas a completar
+     * @return Versiones nuevas de las tareas que se completaron ahora
+     *         (no incluye las que ya estaban completadas o ya no existen)
+     */
+    public List<Tarea> completarVarias(List<Tarea> lote) {
+        return escribir((tx, ahora) -> {
+            List<Tarea> completadas = new ArrayList<>();
+            for (Tarea tarea : lote) {
+                Tarea actual = tx.buscar(tarea.getId());
+                if (actual == null || actual.isCompletada()) {
+                    continue;
+                }
+                Tarea nueva = actual.copiar();
+                nueva.setCompletada(true);
+                tx.reemplazar(actual, nueva, ahora);
+                completadas.add(nueva);
+            }
+            return completadas;
+        });
+    }
+    
+    /**
+     * Elimina varias tareas en una sola escritura atómica
+     * 
+     * @param lote Tareas a eliminar
+     * @return Tareas que existían y se eliminaron
+     */
+    public List<Tarea> eliminarVarias(List<Tarea> lote) {
+        List<Tarea> eliminadas = escribir((tx, ahora) -> {
+            List<Tarea> quitadas = new ArrayList<>();
+            for (Tarea tarea : lote) {
+                Tarea actual = tx.buscar(tarea.getId());
+                if (actual != null) {
+                    tx.quitar(actual);
+                    quitadas.add(actual);
+                }
+            }
+            return quitadas;
+        });
+        quitarDelIndiceTexto(eliminadas);
+        return eliminadas;
+    }
+    
+    /**
+     * Elimina todas las tareas completadas de un usuario en una sola escritura
+     * Recorre solo las tareas de ese usuario
+     * 
+     * @param usuarioId ID del creador
+     * @return Tareas eliminadas
+     */
+    public List<Tarea> eliminarCompletadasDe(String usuarioId) {
+        List<Tarea> eliminadas = escribir((tx, ahora) -> {
+            List<Tarea> quitadas = new ArrayList<>();
+            PSortedSet<Tarea> delUsuario = tx.porCreador.get(usuarioId);
+            if (delUsuario != null) {
+                for (Tarea tarea : delUsuario) {
+                    if (tarea.isCompletada()) {
+                        tx.quitar(tarea);
+                        quitadas.add(tarea);
+                    }
+                }
+            }
+            return quitadas;
+        });
+        quitarDelIndiceTexto(eliminadas);
+        return eliminadas;
+    }
+    
+    /**
+     * Establece la fecha de vencimiento de una tarea
+     * 
+     * @param tarea Tarea a modificar
+     * @param fechaVencimiento Nueva fecha de vencimiento
+     * @return La versión nueva de la tarea, o null si ya no existe
+     */
+    public Tarea establecerVencimiento(Tarea tarea, LocalDateTime fechaVencimiento) {
+        return escribir((tx, ahora) -> {
+            Tarea actual = tx.buscar(tarea.getId());
+            if (actual == null) {
+                return null;
+            }
+            Tarea nueva = actual.copiar();
+            nueva.setFechaVencimiento(fechaVencimiento);
+            tx.reemplazar(actual, nueva, ahora);
+            return nueva;
+        });
+    }
+    
+    /**
+     * Mueve a vencidas las tareas pendientes cuya fecha ya pasó
+     * Solo mira el frente del índice de próximas: O(k log n) para k tareas vencidas
+     * 
+     * @return Cantidad de tareas que pasaron a vencidas
+     */
+    public int actualizarVencimientos() {
+        // Camino rápido sin escribir: nada venció desde la última vez
+        PSortedSet<Tarea> proximas = estado.get().proximas;
+        if (proximas.isEmpty() || !proximas.first().getFechaVencimiento().isBefore(LocalDateTime.now())) {
+            return 0;
+        }
+        return escribir((tx, ahora) -> tx.moverVencidas(ahora));
+    }
+    
+    // ========================
+    // LECTURAS (sin bloqueo, sobre la instantánea actual)
+    // ========================
+    
+    /**
+     * Busca una tarea por su ID
+     * 
+     * @param tareaId ID de la tarea
+     * @return La tarea, o null si no existe
+     */
+    public Tarea buscarPorId(String tareaId) {
+        return estado.get().porId.get(tareaId);
+    }
+    
+    /**
+     * Cantidad de tareas de un usuario
+     * 
+     * @param usuarioId ID del creador
+     * @return Número de tareas
+     */
+    public int contarDe(String usuarioId) {
+        return tamanio(estado.get().porCreador.get(usuarioId));
+    }
+    
+    /**
+     * Tareas de un usuario en orden de creación
+     * 
+     * @param usuarioId ID del creador
+     * @return Copia de la lista (vacía si no tiene tareas)
+     */
+    public List<Tarea> getTareasDe(String usuarioId) {
+        return copiar(estado.get().porCreador.get(usuarioId));
+    }
+    
+    /**
+     * Tareas de un usuario ordenadas por prioridad (orden de los listados)
+     * 
+     * @param usuarioId ID del creador
+     * @return Copia ordenada (vacía si no tiene tareas)
+     */
+    public List<Tarea> getTareasOrdenadasDe(String usuarioId) {
+        return copiar(estado.get().porCreadorPrioridad.get(usuarioId));
+    }
+    
+    /**
+     * Tareas de una materia en orden de creación
+     * 
+     * @param codigoMateria Código de la materia (como se guarda en la tarea)
+     * @return Copia de las tareas (vacía si no tiene)
+     */
+    public List<Tarea> getTareasDeMateria(String codigoMateria) {
+        PMap<String, Tarea> conjunto = estado.get().porMateria.get(codigoMateria);
+        if (conjunto == null) {
+            return Collections.emptyList();
+        }
+        List<Tarea> resultado = new ArrayList<>(conjunto.values());
+        resultado.sort(ORDEN_CREACION);
+        return resultado;
+    }
+    
+    /**
+     * Cantidad de tareas de una materia - O(1)
+     * 
+     * @param codigoMateria Código de la materia
+     * @return Número de tareas
+     */
+    public int contarDeMateria(String codigoMateria) {
+        PMap<String, Tarea> conjunto = estado.get().porMateria.get(codigoMateria);
+        return conjunto == null ? 0 : conjunto.size();
+    }
+    
+    /**
+     * Cantidad de tareas completadas de una materia - O(1)
+     * Las pendientes son contarDeMateria() menos este valor
+     * 
+     * @param codigoMateria Código de la materia
+     * @return Número de tareas completadas
+     */
+    public int contarCompletadasDeMateria(String codigoMateria) {
+        return estado.get().completadasPorMateria.getOrDefault(codigoMateria, 0);
+    }
+    
+    /**
+     * Tareas vencidas de un usuario, de la más antigua a la más reciente
+     * 
+     * @param usuarioId ID del creador
+     * @return Copia ordenada por fecha de vencimiento
+     */
+    public List<Tarea> getVencidasDe(String usuarioId) {
+        actualizarVencimientos();
+        return copiar(estado.get().vencidasPorCreador.get(usuarioId));
+    }
+    
+    /**
+     * Cantidad de tareas vencidas de un usuario
+     * 
+     * @param usuarioId ID del creador
+     * @return Número de tareas vencidas
+     */
+    public int contarVencidasDe(String usuarioId) {
+        actualizarVencimientos();
+        return tamanio(estado.get().vencidasPorCreador.get(usuarioId));
+    }
+    
+    /**
+     * Tareas vencidas de una materia, de la más antigua a la más reciente
+     * 
+     * @param codigoMateria Código de la materia (como se guarda en la tarea)
+     * @return Copia ordenada por fecha de vencimiento
+     */
+    public List<Tarea> getVencidasDeMateria(String codigoMateria) {
+        actualizarVencimientos();
+        return copiar(estado.get().vencidasPorMateria.get(codigoMateria));
+    }
+    
+    /**
+     * Tareas pendientes que vencen antes de una fecha (lectura por rango)
+     * 
+     * @param limite Fecha límite (exclusiva)
+     * @return Tareas ordenadas por fecha de vencimiento
+     */
+    public List<Tarea> getProximasHasta(LocalDateTime limite) {
+        actualizarVencimientos();
+        List<Tarea> resultado = new ArrayList<>();
+        for (Tarea tarea : estado.get().proximas) {
+            if (!tarea.getFechaVencimiento().isBefore(limite)) {
+                break;
+            }
+            resultado.add(tarea);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Busca tareas de un usuario por texto en título o descripción
+     * Sin tildes ni mayúsculas, y cada palabra se toma como prefijo
+     * 
+     * @param usuarioId ID del creador
+     * @param consulta Texto a buscar
+     * @return Tareas encontradas, ordenadas por prioridad
+     */
+    public List<Tarea> buscarTexto(String usuarioId, String consulta) {
+        Set<String> ids = indiceTexto.buscar(usuarioId, consulta);
+        Estado actual = estado.get();
+        List<Tarea> resultado = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Tarea tarea = actual.porId.get(id);
+            if (tarea != null) {
+                resultado.add(tarea);
+            }
+        }
+        resultado.sort(ORDEN_PRIORIDAD);
+        return resultado;
+    }
+    
+    /**
+     * Todas las tareas del bot
+     * 
+     * @return Copia de todas las tareas
+     */
+    public List<Tarea> getTodas() {
+        return new ArrayList<>(estado.get().porId.values());
+    }
+    
+    /**
+     * Cantidad total de tareas
+     * 
+     * @return Número de tareas
+     */
+    public int getTamanio() {
+        return estado.get().porId.size();
+    }
+    
+    // ========================
+    // MÉTODOS AUXILIARES
+    // ========================
+    
+    /**
+     * Aplica un cambio sobre el estado actual y lo publica atómicamente.
+     * Si otro hilo publicó antes, se vuelve a aplicar sobre el estado nuevo.
+     * Versiones y estadísticas se actualizan solo una vez, tras publicar.
+     */
+    private <R> R escribir(Cambio<R> cambio) {
+        while (true) {
+            Transaccion tx = new Transaccion(estado.get());
+            R resultado = cambio.aplicar(tx, LocalDateTime.now());
+            if (!tx.modificada) {
+                return resultado;
+            }
+            if (estado.compareAndSet(tx.base, tx.confirmar())) {
+                estadisticas.tareasCambiadas(tx.diferenciaTareas, tx.diferenciaCompletadas);
+                versiones.incrementar(Dominio.TAREAS);
+                return resultado;
+            }
+        }
+    }
+    
+    private void quitarDelIndiceTexto(List<Tarea> eliminadas) {
+        for (Tarea tarea : eliminadas) {
+            indiceTexto.quitar(tarea.getCreadorId(), tarea.getId());
+        }
+    }
+    
+    private static int tamanio(PSortedSet<Tarea> conjunto) {
+        return conjunto == null ? 0 : conjunto.size();
+    }
+    
+    private static List<Tarea> copiar(PSortedSet<Tarea> conjunto) {
+        return conjunto == null ? Collections.emptyList() : new ArrayList<>(conjunto);
+    }
+}
@@ -0,0 +1,107 @@
+package com.educativo.bot.servicios;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
+
+/**
+ * CACHÉ DE RESPUESTAS VERSIONADA
+ * 
+ * Guarda la respuesta de comandos de solo lectura junto con las versiones
+ * de los datos de los que depende. Una entrada sirve mientras esas versiones
+ * no cambien; en cuanto alguien escribe en un dominio relevante, la próxima
+ * lectura la recalcula y la reemplaza.
+ * 
+ * La caché está acotada: si se llena, se descarta la respuesta usada hace
+ * más tiempo (LRU, igual que SesionesVista), así las consultas frecuentes
+ * siguen cacheadas aunque lleguen muchas claves distintas.
+ */
+public class CacheRespuestas {
+    
+    /**
+     * Entrada de la caché: respuesta y versiones con las que se calculó
+     */
+    private static final class Entrada {
+        private final String respuesta;
+        private final long[] versiones;
+        
+        private Entrada(String respuesta, long[] versiones) {
+            this.respuesta = respuesta;
+            this.versiones = versiones;
+        }
+    }
+    
+    // ENCAPSULAMIENTO: clave -> entrada, en orden de uso (LRU)
+    private final Map<String, Entrada> entradas;
+    private final VersionesDatos versiones;
+    
+    /**
+     * @param versiones Contadores de versión de los datos
+     * @param maxEntradas Cantidad máxima de respuestas guardadas
+     */
+    public CacheRespuestas(VersionesDatos versiones, int maxEntradas) {
+        this.versiones = versiones;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > maxEntradas;
+            }
+        };
+    }
+    
+    /**
+     * Obtiene una respuesta si sigue vigente
+     * 
+     * @param clave Clave del comando y sus argumentos
+     * @param dependencias Dominios de los que depende la respuesta
+     * @return La respuesta guardada, o null si no hay o está desactualizada
+     */
+    public String obtener(String clave, Set<Dominio> dependencias) {
+        Entrada entrada;
+        synchronized (entradas) {
+            entrada = entradas.get(clave);
+        }
+        if (entrada == null || !versiones.vigente(entrada.versiones, dependencias)) {
+            return null;
+        }
+        return entrada.respuesta;
+    }
+    
+    /**
+     * Captura las versiones actuales ANTES de calcular una respuesta.
+     * Si hay una escritura mientras se calcula, la entrada quedará
+     * desactualizada desde el principio y no se servirá.
+     * 
+     * @param dependencias Dominios de los que depende la respuesta
+     * @return Versiones capturadas para pasar a guardar()
+     */
+    public long[] capturarVersiones(Set<Dominio> dependencias) {
+        return versiones.capturar(dependencias);
+    }
+    
+    /**
+     * Guarda una respuesta recién calculada
+     * 
+     * @param clave Clave del comando y sus argumentos
+     * @param respuesta Respuesta calculada
+     * @param versionesCapturadas Versiones capturadas antes de calcularla
+     */
+    public void guardar(String clave, String respuesta, long[] versionesCapturadas) {
+        synchronized (entradas) {
+            entradas.put(clave, new Entrada(respuesta, versionesCapturadas));
+        }
+    }
+    
+    /**
+     * Obtiene la cantidad de respuestas guardadas
+     * 
+     * @return Número de entradas
+     */
+    public int getTamanio() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+}
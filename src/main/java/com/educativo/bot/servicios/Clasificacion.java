@@ -0,0 +1,237 @@
+package com.educativo.bot.servicios;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.educativo.bot.modelos.Usuario;
+
+/**
+ * CLASIFICACIÓN INCREMENTAL DE USUARIOS POR PUNTOS
+ * 
+ * Árbol de estadísticas de orden (un treap donde cada nodo conoce el tamaño
+ * de su subárbol) ordenado por puntos de mayor a menor. Se actualiza cada vez
+ * que cambian los puntos de un usuario, en lugar de ordenar a todos en cada
+ * consulta:
+ * 
+ * - actualizar un usuario: O(log n)
+ * - posición de un usuario: O(log n)
+ * - top K: O(log n + K)
+ * 
+ * A igual cantidad de puntos se desempata por ID para que el orden sea estable.
+ */
+public class Clasificacion {
+    
+    /**
+     * Nodo del treap. Guarda los puntos con los que se insertó el usuario,
+     * porque el objeto Usuario cambia antes de que se reubique el nodo.
+     */
+    private static final class Nodo {
+        private final Usuario usuario;
+        private final int puntos;
+        private final int prioridad;
+        private int tamanio = 1;
+        private Nodo izquierdo;
+        private Nodo derecho;
+        
+        private Nodo(Usuario usuario, int puntos) {
+            this.usuario = usuario;
+            this.puntos = puntos;
+            this.prioridad = ThreadLocalRandom.current().nextInt();
+        }
+    }
+    
+    // ENCAPSULAMIENTO: Raíz del árbol y puntos con los que está ubicado cada usuario
+    private Nodo raiz;
+    private final Map<String, Integer> puntosEnArbol = new HashMap<>();
+    
+    // ========================
+    // ESCRITURAS
+    // ========================
+    
+    /**
+     * Ubica (o reubica) a un usuario según sus puntos actuales
+     * 
+     * @param usuario Usuario cuyos puntos cambiaron o que es nuevo
+     */
+    public synchronized void actualizar(Usuario usuario) {
+        int puntos = usuario.getPuntos();
+        Integer anteriores = puntosEnArbol.put(usuario.getId(), puntos);
+        if (anteriores != null) {
+            if (anteriores == puntos) {
+                return;
+            }
+            raiz = eliminar(raiz, anteriores, usuario.getId());
+        }
+        raiz = insertar(raiz, new Nodo(usuario, puntos));
+    }
+    
+    /**
+     * Quita a un usuario de la clasificación
+     * 
+     * @param usuarioId ID del usuario
+     */
+    public synchronized void quitar(String usuarioId) {
+        Integer anteriores = puntosEnArbol.remove(usuarioId);
+        if (anteriores != null) {
+            raiz = eliminar(raiz, anteriores, usuarioId);
+        }
+    }
+    
+    // ========================
+    // LECTURAS
+    // ========================
+    
+    /**
+     * Posición de un usuario en el ranking (1 = más puntos)
+     * 
+     * @param usuarioId ID del usuario
+     * @return Posición, o 0 si el usuario no está en la clasificación
+     */
+    public synchronized int posicion(String usuarioId) {
+        Integer puntos = puntosEnArbol.get(usuarioId);
+        if (puntos == null) {
+            return 0;
+        }
+        
+        // Contar los nodos que van antes que (puntos, usuarioId)
+        int anteriores = 0;
+        Nodo actual = raiz;
+        while (actual != null) {
+            int comparacion = comparar(puntos, usuarioId, actual);
+            if (comparacion > 0) {
+                anteriores += tamanio(actual.izquierdo) + 1;
+                actual = actual.derecho;
+            } else {
+                actual = actual.izquierdo;
+            }
+        }
+        return anteriores + 1;
+    }
+    
+    /**
+     * Los K usuarios con más puntos, en orden
+     * 
+     * @param k Cantidad de usuarios
+     * @return Lista con hasta K usuarios
+     */
+    public synchronized List<Usuario> top(int k) {
+        List<Usuario> resultado = new ArrayList<>(Math.min(k, tamanio(raiz)));
+        Deque<Nodo> pila = new ArrayDeque<>();
+        Nodo actual = raiz;
+        
+        while ((actual != null || !pila.isEmpty()) && resultado.size() < k) {
+            while (actual != null) {
+                pila.push(actual);
+                actual = actual.izquierdo;
+            }
+            actual = pila.pop();
+            resultado.add(actual.usuario);
+            actual = actual.derecho;
+        }
+        return resultado;
+    }
+    
+    /**
+     * Cantidad de usuarios en la clasificación
+     * 
+     * @return Número de usuarios
+     */
+    public synchronized int getTamanio() {
+        return tamanio(raiz);
+    }
+    
+    // ========================
+    // OPERACIONES DEL TREAP
+    // ========================
+    
+    /**
+     * Compara una clave (puntos, id) con un nodo: más puntos va primero
+     */
+    private static int comparar(int puntos, String usuarioId, Nodo nodo) {
+        int comparacion = Integer.compare(nodo.puntos, puntos);
+        return comparacion != 0 ? comparacion : usuarioId.compareTo(nodo.usuario.getId());
+    }
+    
+    private static int tamanio(Nodo nodo) {
+        return nodo == null ? 0 : nodo.tamanio;
+    }
+    
+    private static void recalcular(Nodo nodo) {
+        nodo.tamanio = 1 + tamanio(nodo.izquierdo) + tamanio(nodo.derecho);
+    }
+    
+    private static Nodo insertar(Nodo nodo, Nodo nuevo) {
+        if (nodo == null) {
+            return nuevo;
+        }
+        if (comparar(nuevo.puntos, nuevo.usuario.getId(), nodo) < 0) {
+            nodo.izquierdo = insertar(nodo.izquierdo, nuevo);
+            if (nodo.izquierdo.prioridad > nodo.prioridad) {
+                nodo = rotarDerecha(nodo);
+            }
+        } else {
+            nodo.derecho = insertar(nodo.derecho, nuevo);
+            if (nodo.derecho.prioridad > nodo.prioridad) {
+                nodo = rotarIzquierda(nodo);
+            }
+        }
+        recalcular(nodo);
+        return nodo;
+    }
+    
+    private static Nodo eliminar(Nodo nodo, int puntos, String usuarioId) {
+        if (nodo == null) {
+            return null;
+        }
+        int comparacion = comparar(puntos, usuarioId, nodo);
+        if (comparacion < 0) {
+            nodo.izquierdo = eliminar(nodo.izquierdo, puntos, usuarioId);
+        } else if (comparacion > 0) {
+            nodo.derecho = eliminar(nodo.derecho, puntos, usuarioId);
+        } else {
+            return unir(nodo.izquierdo, nodo.derecho);
+        }
+        recalcular(nodo);
+        return nodo;
+    }
+    
+    /**
+     * Une dos subárboles donde todas las claves de "izquierdo" van antes que las de "derecho"
+     */
+    private static Nodo unir(Nodo izquierdo, Nodo derecho) {
+        if (izquierdo == null) return derecho;
+        if (derecho == null) return izquierdo;
+        
+        if (izquierdo.prioridad > derecho.prioridad) {
+            izquierdo.derecho = unir(izquierdo.derecho, derecho);
+            recalcular(izquierdo);
+            return izquierdo;
+        }
+        derecho.izquierdo = unir(izquierdo, derecho.izquierdo);
+        recalcular(derecho);
+        return derecho;
+    }
+    
+    private static Nodo rotarDerecha(Nodo nodo) {
+        Nodo nuevaRaiz = nodo.izquierdo;
+        nodo.izquierdo = nuevaRaiz.derecho;
+        nuevaRaiz.derecho = nodo;
+        recalcular(nodo);
+        recalcular(nuevaRaiz);
+        return nuevaRaiz;
+    }
+    
+    private static Nodo rotarIzquierda(Nodo nodo) {
+        Nodo nuevaRaiz = nodo.derecho;
+        nodo.derecho = nuevaRaiz.izquierdo;
+        nuevaRaiz.izquierdo = nodo;
+        recalcular(nodo);
+        recalcular(nuevaRaiz);
+        return nuevaRaiz;
+    }
+}
@@ -0,0 +1,174 @@
+package com.educativo.bot.servicios;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ESTADÍSTICAS GLOBALES INCREMENTALES
+ * 
+ * Contadores que los almacenes actualizan en cada escritura (crear, completar,
+ * archivar, sumar puntos...), de modo que `!sistema stats` solo lee números
+ * ya calculados en lugar de recorrer materias, tareas y usuarios.
+ * 
+ * Los usuarios activos (actividad en las últimas 24 horas) se cuentan con una
+ * ventana ordenada por última actividad: al consultar solo se descartan los
+ * que acaban de quedar fuera de la ventana.
+ */
+public class EstadisticasGlobales {
+    
+    private static final long VENTANA_ACTIVIDAD_MS = TimeUnit.HOURS.toMillis(24);
+    
+    // ENCAPSULAMIENTO: Contadores atómicos por agregado
+    private final AtomicLong materias = new AtomicLong();
+    private final AtomicLong materiasArchivadas = new AtomicLong();
+    private final AtomicLong tareas = new AtomicLong();
+    private final AtomicLong tareasCompletadas = new AtomicLong();
+    private final AtomicLong puntos = new AtomicLong();
+    
+    // usuarioId -> última actividad, de la más antigua a la más reciente
+    private final LinkedHashMap<String, Long> ultimaActividad = new LinkedHashMap<>();
+    
+    // ========================
+    // ESCRITURAS (las llaman los almacenes)
+    // ========================
+    
+    /**
+     * Registra una materia nueva
+     */
+    public void materiaCreada() {
+        materias.incrementAndGet();
+    }
+    
+    /**
+     * Registra una materia eliminada
+     * 
+     * @param estabaArchivada Si la materia estaba archivada al eliminarse
+     */
+    public void materiaEliminada(boolean estabaArchivada) {
+        materias.decrementAndGet();
+        if (estabaArchivada) {
+            materiasArchivadas.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Registra un cambio de estado de una materia
+     * 
+     * @param archivada true si se archivó, false si se desarchivó
+     */
+    public void materiaArchivada(boolean archivada) {
+        if (archivada) {
+            materiasArchivadas.incrementAndGet();
+        } else {
+            materiasArchivadas.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Registra el efecto neto de una escritura sobre las tareas
+     * 
+     * @param diferenciaTotal Tareas agregadas menos eliminadas
+     * @param diferenciaCompletadas Cambio en la cantidad de tareas completadas
+     */
+    public void tareasCambiadas(int diferenciaTotal, int diferenciaCompletadas) {
+        if (diferenciaTotal != 0) {
+            tareas.addAndGet(diferenciaTotal);
+        }
+        if (diferenciaCompletadas != 0) {
+            tareasCompletadas.addAndGet(diferenciaCompletadas);
+        }
+    }
+    
+    /**
+     * Registra un cambio en los puntos de un usuario
+     * 
+     * @param diferencia Puntos ganados (positivo) o perdidos (negativo)
+     */
+    public void puntosCambiados(long diferencia) {
+        puntos.addAndGet(diferencia);
+    }
+    
+    /**
+     * Registra actividad de un usuario (lo mueve al final de la ventana)
+     * 
+     * @param usuarioId ID del usuario
+     */
+    public synchronized void actividadRegistrada(String usuarioId) {
+        ultimaActividad.remove(usuarioId);
+        ultimaActividad.put(usuarioId, System.currentTimeMillis());
+    }
+    
+    /**
+     * Siembra la ventana con la última actividad de usuarios cargados de una
+     * instantánea (reinicio en caliente). Se omiten los que ya quedaron fuera
+     * de las 24 horas y, si un usuario ya estaba en la ventana, se conserva
+     * su actividad más reciente. La ventana se reordena una sola vez.
+     * 
+     * @param actividades usuarioId -> última actividad (milisegundos epoch)
+     */
+    public synchronized void actividadesCargadas(Map<String, Long> actividades) {
+        long limite = System.currentTimeMillis() - VENTANA_ACTIVIDAD_MS;
+        Map<String, Long> combinadas = new HashMap<>(ultimaActividad);
+        boolean cambio = false;
+        for (Map.Entry<String, Long> entrada : actividades.entrySet()) {
+            if (entrada.getValue() > limite) {
+                combinadas.merge(entrada.getKey(), entrada.getValue(), Math::max);
+                cambio = true;
+            }
+        }
+        if (!cambio) {
+            return;
+        }
+        List<Map.Entry<String, Long>> ordenadas = new ArrayList<>(combinadas.entrySet());
+        ordenadas.sort(Map.Entry.comparingByValue());
+        ultimaActividad.clear();
+        for (Map.Entry<String, Long> entrada : ordenadas) {
+            ultimaActividad.put(entrada.getKey(), entrada.getValue());
+        }
+    }
+    
+    // ========================
+    // LECTURAS
+    // ========================
+    
+    public long getMaterias() {
+        return materias.get();
+    }
+    
+    public long getMateriasArchivadas() {
+        return materiasArchivadas.get();
+    }
+    
+    public long getTareas() {
+        return tareas.get();
+    }
+    
+    public long getTareasCompletadas() {
+        return tareasCompletadas.get();
+    }
+    
+    public long getPuntos() {
+        return puntos.get();
+    }
+    
+    /**
+     * Usuarios con actividad en las últimas 24 horas
+     * Descarta del frente de la ventana los que ya vencieron (costo amortizado O(1))
+     * 
+     * @return Cantidad de usuarios activos
+     */
+    public synchronized int getUsuariosActivos() {
+        long limite = System.currentTimeMillis() - VENTANA_ACTIVIDAD_MS;
+        Iterator<Map.Entry<String, Long>> it = ultimaActividad.entrySet().iterator();
+        while (it.hasNext() && it.next().getValue() <= limite) {
+            it.remove();
+        }
+        return ultimaActividad.size();
+    }
+}
@@ -0,0 +1,107 @@
+package com.educativo.bot.servicios;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.events.channel.ChannelCreateEvent;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.channel.update.ChannelUpdateNameEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+/**
+ * CANALES ESPECIALES DE CADA SERVIDOR
+ * 
+ * Recuerda cuál es el canal de bienvenida de cada servidor ("bienvenida",
+ * o "general" si no existe) para no buscarlo por nombre entre todos los
+ * canales en cada ingreso. También recuerda cuando un servidor no tiene
+ * ninguno de los dos.
+ * 
+ * La caché se invalida con los eventos del gateway que pueden cambiar la
+ * respuesta: creación, eliminación o cambio de nombre de un canal.
+ * 
+ * HERENCIA: Extiende ListenerAdapter para recibir esos eventos.
+ */
+public class GestorCanales extends ListenerAdapter {
+    
+    private static final List<String> NOMBRES_BIENVENIDA = List.of("bienvenida", "general"); // En orden de preferencia
+    private static final long SIN_CANAL = 0L;  // El servidor no tiene canal de bienvenida
+    
+    // ENCAPSULAMIENTO: servidorId -> ID del canal de bienvenida (o SIN_CANAL)
+    private final Map<String, Long> canalBienvenidaPorServidor = new ConcurrentHashMap<>();
+    
+    /**
+     * Obtiene el canal de bienvenida de un servidor
+     * 
+     * @param servidor Servidor de Discord
+     * @return Canal de bienvenida, o null si el servidor no tiene uno
+     */
+    public TextChannel obtenerCanalBienvenida(Guild servidor) {
+        long canalId = canalBienvenidaPorServidor.computeIfAbsent(servidor.getId(), id -> buscarCanalBienvenida(servidor));
+        if (canalId == SIN_CANAL) {
+            return null;
+        }
+        
+        TextChannel canal = servidor.getTextChannelById(canalId);
+        if (canal == null) {
+            // Se perdió algún evento: volver a buscar la próxima vez
+            invalidar(servidor.getId());
+        }
+        return canal;
+    }
+    
+    /**
+     * Olvida el canal de bienvenida de un servidor
+     * 
+     * @param servidorId ID del servidor
+     */
+    public void invalidar(String servidorId) {
+        canalBienvenidaPorServidor.remove(servidorId);
+    }
+    
+    /**
+     * Busca el canal por nombre (solo cuando no está en caché)
+     */
+    private long buscarCanalBienvenida(Guild servidor) {
+        for (String nombre : NOMBRES_BIENVENIDA) {
+            List<TextChannel> canales = servidor.getTextChannelsByName(nombre, true);
+            if (!canales.isEmpty()) {
+                return canales.get(0).getIdLong();
+            }
+        }
+        return SIN_CANAL;
+    }
+    
+    // ========================
+    // EVENTOS DEL GATEWAY - POLIMORFISMO por sobrescritura
+    // ========================
+    
+    @Override
+    public void onChannelCreate(ChannelCreateEvent event) {
+        if (event.isFromGuild()) {
+            invalidar(event.getGuild().getId());
+        }
+    }
+    
+    @Override
+    public void onChannelDelete(ChannelDeleteEvent event) {
+        if (event.isFromGuild()) {
+            invalidar(event.getGuild().getId());
+        }
+    }
+    
+    @Override
+    public void onChannelUpdateName(ChannelUpdateNameEvent event) {
+        if (event.isFromGuild()) {
+            invalidar(event.getGuild().getId());
+        }
+    }
+    
+    @Override
+    public void onGuildLeave(GuildLeaveEvent event) {
+        invalidar(event.getGuild().getId());
+    }
+}
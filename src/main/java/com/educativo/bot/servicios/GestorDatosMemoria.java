@@ -0,0 +1,66 @@
+package com.educativo.bot.servicios;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.educativo.bot.interfaces.GestorDatos;
+
+/**
+ * CONCEPTO: INTERFACES (otra implementación)
+ * 
+ * GestorDatos que solo guarda en memoria, sin archivo. Sirve para correr
+ * el bot sin escribir a disco (pruebas de carga, ensayos): gracias a la
+ * interfaz, los interceptores y comandos no notan la diferencia.
+ */
+public class GestorDatosMemoria implements GestorDatos {
+    
+    // ENCAPSULAMIENTO: Datos en memoria (thread-safe)
+    private final Map<String, Object> datos = new ConcurrentHashMap<>();
+    
+    @Override
+    public boolean guardar(String clave, Object valor) {
+        if (clave == null || clave.trim().isEmpty() || valor == null) {
+            return false;
+        }
+        datos.put(clave, valor);
+        return true;
+    }
+    
+    @Override
+    public Object obtener(String clave) {
+        if (clave == null || clave.trim().isEmpty()) {
+            return null;
+        }
+        return datos.get(clave);
+    }
+    
+    @Override
+    public boolean eliminar(String clave) {
+        if (clave == null || clave.trim().isEmpty()) {
+            return false;
+        }
+        return datos.remove(clave) != null;
+    }
+    
+    @Override
+    public boolean existe(String clave) {
+        if (clave == null || clave.trim().isEmpty()) {
+            return false;
+        }
+        return datos.containsKey(clave);
+    }
+    
+    @Override
+    public void sincronizar() {
+        // Nada que guardar: todo vive en memoria
+    }
+    
+    /**
+     * Obtiene el número total de entradas almacenadas
+     * 
+     * @return Número de entradas
+     */
+    public int getTamanio() {
+        return datos.size();
+    }
+}
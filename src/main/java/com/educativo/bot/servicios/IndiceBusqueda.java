@@ -0,0 +1,166 @@
+package com.educativo.bot.servicios;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * ÍNDICE INVERTIDO PARA BÚSQUEDAS DE TEXTO
+ * 
+ * Asocia cada término con los documentos (tareas, materias...) que lo
+ * contienen, así una búsqueda no recorre los textos sino que lee listas ya
+ * armadas:
+ * 
+ * - Los términos se normalizan sin tildes ni mayúsculas ("Álgebra" = "algebra").
+ * - Los términos se guardan ordenados, así cada palabra de la consulta se
+ *   toma como prefijo ("alg" encuentra "algebra" y "algoritmos").
+ * - Varias palabras se combinan con Y: el documento debe tenerlas todas.
+ * - Los documentos se separan por ámbito (por ejemplo, el usuario dueño de
+ *   la tarea) para no mezclar resultados de otros.
+ * - Se actualiza por documento: indexar() reemplaza los términos anteriores.
+ */
+public class IndiceBusqueda {
+    
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    
+    /**
+     * Índice de un ámbito: término -> documentos y documento -> términos
+     */
+    private static final class Particion {
+        private final NavigableMap<String, Set<String>> documentosPorTermino = new TreeMap<>();
+        private final Map<String, Set<String>> terminosPorDocumento = new HashMap<>();
+    }
+    
+    // ENCAPSULAMIENTO: ámbito -> partición (protegido por el monitor de esta instancia)
+    private final Map<String, Particion> particiones = new HashMap<>();
+    
+    // ========================
+    // ESCRITURAS
+    // ========================
+    
+    /**
+     * Indexa (o reindexa) un documento con sus textos
+     * 
+     * @param ambito Ámbito del documento (p. ej. ID del dueño)
+     * @param documentoId ID del documento
+     * @param textos Textos a indexar (los null se ignoran)
+     */
+    public synchronized void indexar(String ambito, String documentoId, String... textos) {
+        quitar(ambito, documentoId);
+        
+        Set<String> terminos = new HashSet<>();
+        for (String texto : textos) {
+            terminos.addAll(extraerTerminos(texto));
+        }
+        if (terminos.isEmpty()) {
+            return;
+        }
+        
+        Particion particion = particiones.computeIfAbsent(ambito, a -> new Particion());
+        particion.terminosPorDocumento.put(documentoId, terminos);
+        for (String termino : terminos) {
+            particion.documentosPorTermino.computeIfAbsent(termino, t -> new HashSet<>()).add(documentoId);
+        }
+    }
+    
+    /**
+     * Quita un documento del índice
+     * 
+     * @param ambito Ámbito del documento
+     * @param documentoId ID del documento
+     */
+    public synchronized void quitar(String ambito, String documentoId) {
+        Particion particion = particiones.get(ambito);
+        if (particion == null) {
+            return;
+        }
+        Set<String> terminos = particion.terminosPorDocumento.remove(documentoId);
+        if (terminos == null) {
+            return;
+        }
+        for (String termino : terminos) {
+            Set<String> documentos = particion.documentosPorTermino.get(termino);
+            documentos.remove(documentoId);
+            if (documentos.isEmpty()) {
+                particion.documentosPorTermino.remove(termino);
+            }
+        }
+        if (particion.terminosPorDocumento.isEmpty()) {
+            particiones.remove(ambito);
+        }
+    }
+    
+    // ========================
+    // LECTURAS
+    // ========================
+    
+    /**
+     * Busca los documentos que contienen todas las palabras de la consulta
+     * (cada palabra como prefijo)
+     * 
+     * @param ambito Ámbito donde buscar
+     * @param consulta Texto de la consulta
+     * @return IDs de los documentos encontrados (vacío si ninguno)
+     */
+    public synchronized Set<String> buscar(String ambito, String consulta) {
+        Particion particion = particiones.get(ambito);
+        List<String> palabras = extraerTerminos(consulta);
+        if (particion == null || palabras.isEmpty()) {
+            return Collections.emptySet();
+        }
+        
+        // Documentos por palabra (unión de todos los términos con ese prefijo)
+        List<Set<String>> coincidencias = new ArrayList<>(palabras.size());
+        for (String palabra : palabras) {
+            Set<String> documentos = new HashSet<>();
+            for (Set<String> conTermino : particion.documentosPorTermino
+                    .subMap(palabra, true, palabra + Character.MAX_VALUE, false).values()) {
+                documentos.addAll(conTermino);
+            }
+            if (documentos.isEmpty()) {
+                return Collections.emptySet();
+            }
+            coincidencias.add(documentos);
+        }
+        
+        // Intersección empezando por el conjunto más chico
+        coincidencias.sort(Comparator.comparingInt(Set::size));
+        Set<String> resultado = new LinkedHashSet<>(coincidencias.get(0));
+        for (int i = 1; i < coincidencias.size() && !resultado.isEmpty(); i++) {
+            resultado.retainAll(coincidencias.get(i));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Separa un texto en términos normalizados (sin tildes, en minúsculas)
+     * 
+     * @param texto Texto libre
+     * @return Términos sin repetir, en el orden en que aparecen
+     */
+    public static List<String> extraerTerminos(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> terminos = new LinkedHashSet<>();
+        for (String termino : SEPARADORES.split(sinTildes.toLowerCase(Locale.ROOT))) {
+            if (!termino.isEmpty()) {
+                terminos.add(termino);
+            }
+        }
+        return new ArrayList<>(terminos);
+    }
+}
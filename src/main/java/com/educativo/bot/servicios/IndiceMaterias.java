@@ -0,0 +1,312 @@
+package com.educativo.bot.servicios;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.pcollections.HashTreePMap;
+import org.pcollections.PMap;
+import org.pcollections.PSortedMap;
+import org.pcollections.TreePMap;
+
+import com.educativo.bot.modelos.Materia;
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
+
+/**
+ * ÍNDICE DE MATERIAS POR CÓDIGO
+ * 
+ * Indexa las materias por su código normalizado (sin espacios y en
+ * mayúsculas), de modo que "mat101" y "MAT101" son la misma materia.
+ * 
+ * - La búsqueda por código es O(1) sobre un mapa hash.
+ * - Un mapa ordenado por código ofrece la vista para los listados.
+ * - Un índice invertido de nombre, descripción y profesor resuelve las búsquedas.
+ * 
+ * CONCURRENCIA (instantáneas): igual que AlmacenTareas, los índices viven en
+ * un Estado inmutable de colecciones persistentes publicado con
+ * compareAndSet. Las lecturas no bloquean y ven ambos índices consistentes;
+ * la unicidad del código se comprueba dentro de la escritura, así que si dos
+ * "!materia crear" llegan a la vez con el mismo código, solo uno gana.
+ */
+public class IndiceMaterias {
+    
+    /**
+     * Instantánea inmutable de los índices
+     */
+    private static final class Estado {
+        private static final Estado VACIO = new Estado(HashTreePMap.empty(), TreePMap.empty(), HashTreePMap.empty());
+        
+        private final PMap<String, Materia> porCodigo;
+        private final PSortedMap<String, Materia> ordenadas;
+        private final PMap<String, Integer> cantidadPorCreador;
+        
+        private Estado(PMap<String, Materia> porCodigo, PSortedMap<String, Materia> ordenadas,
+                       PMap<String, Integer> cantidadPorCreador) {
+            this.porCodigo = porCodigo;
+            this.ordenadas = ordenadas;
+            this.cantidadPorCreador = cantidadPorCreador;
+        }
+        
+        private Estado conMateria(String clave, Materia materia) {
+            return new Estado(porCodigo.plus(clave, materia), ordenadas.plus(clave, materia), cantidadPorCreador);
+        }
+    }
+    
+    // Las materias son visibles para todos: un único ámbito de búsqueda
+    private static final String AMBITO_BUSQUEDA = "";
+    
+    // ENCAPSULAMIENTO: Estado publicado (lecturas sin bloqueo)
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.VACIO);
+    private final IndiceBusqueda indiceTexto = new IndiceBusqueda();
+    private final VersionesDatos versiones;
+    private final EstadisticasGlobales estadisticas;
+    
+    /**
+     * @param versiones Versiones de datos a incrementar en cada escritura
+     * @param estadisticas Contadores globales a mantener en cada escritura
+     */
+    public IndiceMaterias(VersionesDatos versiones, EstadisticasGlobales estadisticas) {
+        this.versiones = versiones;
+        this.estadisticas = estadisticas;
+    }
+    
+    /**
+     * Normaliza un código para usarlo como clave
+     * 
+     * @param codigo Código tal como lo escribió el usuario
+     * @return Código sin espacios y en mayúsculas
+     */
+    public static String normalizar(String codigo) {
+        return codigo.trim().toUpperCase(Locale.ROOT);
+    }
+    
+    // ========================
+    // ESCRITURAS
+    // ========================
+    
+    /**
+     * Agrega una materia si su código no está en uso (operación atómica)
+     * 
+     * @param materia Materia a agregar (el índice no la modifica después)
+     * @return true si se agregó, false si ya existía una materia con ese código
+     */
+    public boolean agregar(Materia materia) {
+        String clave = normalizar(materia.getCodigo());
+        while (true) {
+            Estado actual = estado.get();
+            if (actual.porCodigo.containsKey(clave)) {
+                return false;
+            }
+            PMap<String, Integer> cantidades = actual.cantidadPorCreador.plus(materia.getCreadorId(),
+                    actual.cantidadPorCreador.getOrDefault(materia.getCreadorId(), 0) + 1);
+            Estado nuevo = new Estado(actual.porCodigo.plus(clave, materia), actual.ordenadas.plus(clave, materia),
+                    cantidades);
+            if (estado.compareAndSet(actual, nuevo)) {
+                actualizarTexto(clave);
+                estadisticas.materiaCreada();
+                if (!materia.isActiva()) {
+                    estadisticas.materiaArchivada(true);
+                }
+                versiones.incrementar(Dominio.MATERIAS);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Carga de una vez las materias de una instantánea (reinicio en caliente)
+     * Se publica un solo estado nuevo con todas
+     * 
+     * @param cargadas Materias leídas de la instantánea
+     * @return Cantidad de materias cargadas (se omiten códigos repetidos)
+     */
+    public int cargarInstantanea(List<Materia> cargadas) {
+        while (true) {
+            Estado actual = estado.get();
+            PMap<String, Materia> porCodigo = actual.porCodigo;
+            PSortedMap<String, Materia> ordenadas = actual.ordenadas;
+            PMap<String, Integer> cantidades = actual.cantidadPorCreador;
+            List<Materia> agregadas = new ArrayList<>();
+            for (Materia materia : cargadas) {
+                String clave = normalizar(materia.getCodigo());
+                if (porCodigo.containsKey(clave)) {
+                    continue;
+                }
+                porCodigo = porCodigo.plus(clave, materia);
+                ordenadas = ordenadas.plus(clave, materia);
+                cantidades = cantidades.plus(materia.getCreadorId(),
+                        cantidades.getOrDefault(materia.getCreadorId(), 0) + 1);
+                agregadas.add(materia);
+            }
+            if (agregadas.isEmpty()) {
+                return 0;
+            }
+            if (estado.compareAndSet(actual, new Estado(porCodigo, ordenadas, cantidades))) {
+                for (Materia materia : agregadas) {
+                    actualizarTexto(normalizar(materia.getCodigo()));
+                    estadisticas.materiaCreada();
+                    if (!materia.isActiva()) {
+                        estadisticas.materiaArchivada(true);
+                    }
+                }
+                versiones.incrementar(Dominio.MATERIAS);
+                return agregadas.size();
+            }
+        }
+    }
+    
+    /**
+     * Elimina una materia
+     * 
+     * @param materia Materia a eliminar
+     * @return true si existía
+     */
+    public boolean eliminar(Materia materia) {
+        String clave = normalizar(materia.getCodigo());
+        while (true) {
+            Estado actual = estado.get();
+            Materia publicada = actual.porCodigo.get(clave);
+            if (publicada == null || !publicada.equals(materia)) {
+                return false;
+            }
+            int cantidad = actual.cantidadPorCreador.getOrDefault(publicada.getCreadorId(), 0);
+            PMap<String, Integer> cantidades = cantidad > 1
+                    ? actual.cantidadPorCreador.plus(publicada.getCreadorId(), cantidad - 1)
+                    : actual.cantidadPorCreador.minus(publicada.getCreadorId());
+            Estado nuevo = new Estado(actual.porCodigo.minus(clave), actual.ordenadas.minus(clave), cantidades);
+            if (estado.compareAndSet(actual, nuevo)) {
+                actualizarTexto(clave);
+                estadisticas.materiaEliminada(!publicada.isActiva());
+                versiones.incrementar(Dominio.MATERIAS);
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Archiva o restaura una materia
+     * 
+     * @param materia Materia a modificar
+     * @param activa true para restaurarla, false para archivarla
+     * @return La versión nueva de la materia, o null si ya no existe
+     */
+    public Materia establecerActiva(Materia materia, boolean activa) {
+        String clave = normalizar(materia.getCodigo());
+        while (true) {
+            Estado actual = estado.get();
+            Materia publicada = actual.porCodigo.get(clave);
+            if (publicada == null || !publicada.equals(materia)) {
+                return null;
+            }
+            if (publicada.isActiva() == activa) {
+                return publicada;
+            }
+            Materia nueva = publicada.copiar();
+            nueva.setActiva(activa);
+            if (estado.compareAndSet(actual, actual.conMateria(clave, nueva))) {
+                estadisticas.materiaArchivada(!activa);
+                versiones.incrementar(Dominio.MATERIAS);
+                return nueva;
+            }
+        }
+    }
+    
+    /**
+     * Lleva el índice de texto de un código al estado publicado actual
+     * 
+     * El índice de texto se actualiza después de cada compareAndSet, y el
+     * código se reutiliza (eliminar X y volver a crear X): si cada escritura
+     * aplicara su propio cambio, un "quitar" atrasado podría borrar la materia
+     * recién creada. Por eso, con el monitor del índice de texto tomado, se
+     * lee el estado vigente y se indexa o se quita según haya materia o no;
+     * la última actualización de cada código siempre deja el índice correcto.
+     * 
+     * @param clave Código normalizado
+     */
+    private void actualizarTexto(String clave) {
+        synchronized (indiceTexto) {
+            Materia materia = estado.get().porCodigo.get(clave);
+            if (materia != null) {
+                indiceTexto.indexar(AMBITO_BUSQUEDA, clave, materia.getNombre(), materia.getDescripcion(),
+                        materia.getProfesor());
+            } else {
+                indiceTexto.quitar(AMBITO_BUSQUEDA, clave);
+            }
+        }
+    }
+    
+    // ========================
+    // LECTURAS (sin bloqueo, sobre la instantánea actual)
+    // ========================
+    
+    /**
+     * Busca una materia por código, sin distinguir mayúsculas
+     * 
+     * @param codigo Código de la materia
+     * @return La materia, o null si no existe
+     */
+    public Materia buscar(String codigo) {
+        return estado.get().porCodigo.get(normalizar(codigo));
+    }
+    
+    /**
+     * Cantidad de materias creadas por un usuario
+     * 
+     * @param creadorId ID del creador
+     * @return Número de materias
+     */
+    public int contarDe(String creadorId) {
+        return estado.get().cantidadPorCreador.getOrDefault(creadorId, 0);
+    }
+    
+    /**
+     * Materias ordenadas por código, para los listados
+     * 
+     * @return Copia ordenada de las materias
+     */
+    public List<Materia> getOrdenadas() {
+        return new ArrayList<>(estado.get().ordenadas.values());
+    }
+    
+    /**
+     * Busca materias por texto en nombre, descripción o profesor
+     * Sin tildes ni mayúsculas, y cada palabra se toma como prefijo
+     * 
+     * @param consulta Texto a buscar
+     * @return Materias encontradas, ordenadas por código
+     */
+    public List<Materia> buscarTexto(String consulta) {
+        Set<String> claves = indiceTexto.buscar(AMBITO_BUSQUEDA, consulta);
+        Estado actual = estado.get();
+        List<Materia> resultado = new ArrayList<>(claves.size());
+        for (String clave : claves) {
+            Materia materia = actual.porCodigo.get(clave);
+            if (materia != null) {
+                resultado.add(materia);
+            }
+        }
+        resultado.sort(Comparator.comparing(Materia::getCodigo));
+        return resultado;
+    }
+    
+    /**
+     * Cantidad total de materias
+     * 
+     * @return Número de materias
+     */
+    public int getTamanio() {
+        return estado.get().porCodigo.size();
+    }
+    
+    /**
+     * Verifica si no hay materias
+     * 
+     * @return true si no hay ninguna
+     */
+    public boolean estaVacio() {
+        return estado.get().porCodigo.isEmpty();
+    }
+}
@@ -0,0 +1,326 @@
+package com.educativo.bot.servicios;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import com.educativo.bot.modelos.Materia;
+import com.educativo.bot.modelos.Tarea;
+import com.educativo.bot.modelos.Usuario;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * INSTANTÁNEAS DE PARTICIÓN (reinicio en caliente)
+ * 
+ * Guarda junto al archivo de datos de un servidor una instantánea de sus
+ * tareas, usuarios y materias, y al reiniciar la lee para que la partición
+ * arranque con todo cargado. Los registros se cargan de una vez en cada
+ * almacén (una sola publicación por almacén, que arma todos sus índices),
+ * sin pasar registro por registro por los comandos ni por las estadísticas.
+ * Los índices en memoria son árboles persistentes y no se pueden guardar
+ * tal cual, así que se rearman al cargar: el tiempo de carga crece con la
+ * cantidad de registros, pero en una sola pasada por almacén.
+ * 
+ * Formato del archivo (.indices):
+ * 
+ * - Encabezado fijo: firma, versión del formato, momento de escritura,
+ *   CRC32 y largo del cuerpo.
+ * - Cuerpo: JSON en UTF-8, que se decodifica a medida que se lee (sin
+ *   armar un String con todo el cuerpo).
+ * 
+ * La instantánea es la única copia de estos datos, así que nunca se pisa
+ * con un estado vacío:
+ * - Cada escritura copia la instantánea actual como anterior
+ *   (.indices.anterior) y luego la reemplaza de forma atómica desde un
+ *   archivo temporal, así la ruta actual nunca queda sin instantánea.
+ * - Las de un formato anterior se migran al leerlas (ver migrar).
+ * - Si la actual no es válida (truncada, corrupta, de otro servidor o de un
+ *   formato más nuevo) se aparta con un nombre único y se usa la anterior.
+ * - Si ninguna es válida, la partición arranca vacía pero la instantánea
+ *   queda BLOQUEADA: no se escribe más hasta revisar los archivos apartados.
+ */
+public class InstantaneaParticion {
+    
+    /**
+     * Contenido de una instantánea
+     */
+    public static final class Contenido {
+        private String servidorId;
+        private List<Tarea> tareas;
+        private List<Usuario> usuarios;
+        private List<Materia> materias;
+        
+        public String getServidorId() {
+            return servidorId;
+        }
+        
+        public List<Tarea> getTareas() {
+            return tareas == null ? new ArrayList<>() : tareas;
+        }
+        
+        public List<Usuario> getUsuarios() {
+            return usuarios == null ? new ArrayList<>() : usuarios;
+        }
+        
+        public List<Materia> getMaterias() {
+            return materias == null ? new ArrayList<>() : materias;
+        }
+    }
+    
+    private static final int FIRMA = 0x42454958;         // "BEIX"
+    private static final int VERSION_FORMATO = 1;        // Cambia si cambia el formato o los modelos
+    private static final int VERSION_MINIMA = 1;         // Formato más viejo que migrar() sabe leer
+    private static final int TAMANIO_ENCABEZADO = 4 + 4 + 8 + 8 + 4; // firma, versión, escrita, crc, largo
+    
+    // ENCAPSULAMIENTO: Archivos de la instantánea
+    private final Path ruta;
+    private final Path rutaAnterior;
+    private final Gson gson;
+    private volatile boolean bloqueada;                  // true = no se escribe (hay datos sin poder leer)
+    
+    /**
+     * @param ruta Archivo de la instantánea (por convención, junto al de datos)
+     */
+    public InstantaneaParticion(String ruta) {
+        this.ruta = Paths.get(ruta);
+        this.rutaAnterior = Paths.get(ruta + ".anterior");
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new TypeAdapter<LocalDateTime>() {
+                    @Override
+                    public void write(JsonWriter salida, LocalDateTime fecha) throws IOException {
+                        salida.value(fecha.toString());
+                    }
+                    
+                    @Override
+                    public LocalDateTime read(JsonReader entrada) throws IOException {
+                        return LocalDateTime.parse(entrada.nextString());
+                    }
+                }.nullSafe())
+                .create();
+    }
+    
+    /**
+     * Escribe la instantánea de una partición
+     * Los usuarios se copian bajo su propio monitor, igual que cuando
+     * RegistroUsuarios les cambia los puntos
+     * 
+     * @param particion Partición a guardar
+     * @return true si se escribió correctamente (false también si está bloqueada)
+     */
+    public boolean escribir(ParticionServidor particion) {
+        if (bloqueada) {
+            System.err.println("⚠️ Instantánea " + ruta + " bloqueada: no se escribe para no pisar datos que no se " +
+                               "pudieron leer. Revisa los archivos .descartada-* y reinicia.");
+            return false;
+        }
+        
+        List<JsonElement> usuarios = new ArrayList<>();
+        for (Usuario usuario : particion.getUsuarios().getTodos()) {
+            synchronized (usuario) {
+                usuarios.add(gson.toJsonTree(usuario));
+            }
+        }
+        
+        StringBuilder json = new StringBuilder();
+        json.append("{\"servidorId\":").append(gson.toJson(particion.getServidorId()))
+            .append(",\"tareas\":").append(gson.toJson(particion.getTareas().getTodas()))
+            .append(",\"usuarios\":").append(gson.toJson(usuarios))
+            .append(",\"materias\":").append(gson.toJson(particion.getMaterias().getOrdenadas()))
+            .append("}");
+        byte[] cuerpo = json.toString().getBytes(StandardCharsets.UTF_8);
+        
+        CRC32 crc = new CRC32();
+        crc.update(cuerpo);
+        ByteBuffer encabezado = ByteBuffer.allocate(TAMANIO_ENCABEZADO)
+                .putInt(FIRMA)
+                .putInt(VERSION_FORMATO)
+                .putLong(System.currentTimeMillis())
+                .putLong(crc.getValue())
+                .putInt(cuerpo.length);
+        encabezado.flip();
+        
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try {
+            if (ruta.getParent() != null) {
+                Files.createDirectories(ruta.getParent());
+            }
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                canal.write(new ByteBuffer[] { encabezado, ByteBuffer.wrap(cuerpo) });
+                canal.force(true);
+            }
+            // Una copia de la actual pasa a ser la anterior (si la nueva resultara
+            // ilegible, queda esa) y recién después la nueva reemplaza a la actual
+            // en un solo paso atómico: un corte en cualquier punto deja siempre
+            // una instantánea completa en la ruta actual
+            if (Files.exists(ruta)) {
+                Files.copy(ruta, rutaAnterior, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+            
+        } catch (IOException e) {
+            System.err.println("❌ Error al escribir instantánea " + ruta + ": " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Lee y valida la instantánea de un servidor; si la actual no sirve,
+     * prueba con la anterior
+     * 
+     * @param servidorId Servidor al que debe pertenecer
+     * @return El contenido, o null si no hay instantánea válida
+     *         (si había archivos y ninguno sirvió, además queda bloqueada)
+     */
+    public Contenido leer(String servidorId) {
+        boolean habiaArchivos = false;
+        for (Path candidata : List.of(ruta, rutaAnterior)) {
+            if (!Files.exists(candidata)) {
+                continue;
+            }
+            habiaArchivos = true;
+            try {
+                Contenido contenido = leerArchivo(candidata, servidorId);
+                if (candidata.equals(rutaAnterior)) {
+                    System.err.println("⚠️ Se cargó la instantánea anterior de " + servidorId +
+                                       ": faltan los cambios del último punto de control.");
+                    // Vuelve a ser la actual; la próxima escritura la rota como siempre
+                    Files.copy(rutaAnterior, ruta, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return contenido;
+            } catch (Exception e) {
+                apartar(candidata, e.getMessage());
+            }
+        }
+        
+        if (habiaArchivos) {
+            bloqueada = true;
+            System.err.println("❌ Ninguna instantánea válida para " + servidorId + ". La partición arranca vacía " +
+                               "y no se escribirán instantáneas hasta revisar los archivos apartados.");
+        }
+        return null;
+    }
+    
+    /**
+     * @return true si la instantánea no se puede escribir (ver leer)
+     */
+    public boolean isBloqueada() {
+        return bloqueada;
+    }
+    
+    // ========================
+    // MÉTODOS AUXILIARES
+    // ========================
+    
+    /**
+     * Valida encabezado, largo y CRC de un archivo y decodifica su cuerpo
+     * 
+     * @throws IOException Con el motivo, si el archivo no es válido
+     */
+    private Contenido leerArchivo(Path archivo, String servidorId) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio < TAMANIO_ENCABEZADO) {
+                throw new IOException("archivo truncado");
+            }
+            ByteBuffer encabezado = ByteBuffer.allocate(TAMANIO_ENCABEZADO);
+            while (encabezado.hasRemaining() && canal.read(encabezado) >= 0) {
+                // Leer el encabezado completo
+            }
+            encabezado.flip();
+            if (encabezado.getInt() != FIRMA) {
+                throw new IOException("firma desconocida");
+            }
+            int version = encabezado.getInt();
+            if (version < VERSION_MINIMA || version > VERSION_FORMATO) {
+                throw new IOException("formato " + version + " (se leen del " + VERSION_MINIMA + " al " + VERSION_FORMATO + ")");
+            }
+            encabezado.getLong(); // momento de escritura
+            long crcEsperado = encabezado.getLong();
+            int largo = encabezado.getInt();
+            if (largo != tamanio - TAMANIO_ENCABEZADO) {
+                throw new IOException("largo inconsistente");
+            }
+            
+            // Primera pasada: CRC del cuerpo, por bloques
+            CRC32 crc = new CRC32();
+            ByteBuffer bloque = ByteBuffer.allocate(64 * 1024);
+            while (canal.read(bloque) > 0) {
+                bloque.flip();
+                crc.update(bloque);
+                bloque.clear();
+            }
+            if (crc.getValue() != crcEsperado) {
+                throw new IOException("CRC inválido");
+            }
+            
+            // Segunda pasada: decodificar el JSON a medida que se lee
+            canal.position(TAMANIO_ENCABEZADO);
+            BufferedReader lector = new BufferedReader(
+                    new InputStreamReader(Channels.newInputStream(canal), StandardCharsets.UTF_8));
+            Contenido contenido = version == VERSION_FORMATO
+                    ? gson.fromJson(lector, Contenido.class)
+                    : gson.fromJson(migrar(JsonParser.parseReader(lector).getAsJsonObject(), version), Contenido.class);
+            if (contenido == null || !servidorId.equals(contenido.getServidorId())) {
+                throw new IOException("pertenece a otro servidor");
+            }
+            return contenido;
+        }
+    }
+    
+    /**
+     * Lleva el cuerpo de una instantánea de un formato anterior al actual,
+     * un paso por versión. Al subir VERSION_FORMATO se agrega aquí el paso
+     * desde la versión anterior, así las instantáneas existentes se siguen
+     * leyendo en vez de descartarse.
+     * 
+     * @param cuerpo Cuerpo en el formato "version"
+     * @param version Formato en que se escribió
+     * @return Cuerpo en el formato actual
+     */
+    private static JsonObject migrar(JsonObject cuerpo, int version) {
+        for (int desde = version; desde < VERSION_FORMATO; desde++) {
+            switch (desde) {
+                // case 1: (pasos de 1 a 2, cuando exista el formato 2)
+                default:
+                    throw new IllegalStateException("no hay migración desde el formato " + desde);
+            }
+        }
+        return cuerpo;
+    }
+    
+    /**
+     * Aparta una instantánea inválida con un nombre único, así un segundo
+     * fallo nunca pisa la copia apartada antes
+     */
+    private static void apartar(Path archivo, String motivo) {
+        Path apartada = archivo.resolveSibling(archivo.getFileName() + ".descartada-" + System.currentTimeMillis());
+        System.err.println("⚠️ Instantánea " + archivo + " no válida (" + motivo + "), apartada como " + apartada.getFileName());
+        try {
+            Files.move(archivo, apartada);
+        } catch (IOException e) {
+            System.err.println("❌ No se pudo apartar la instantánea: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.educativo.bot.servicios;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.educativo.bot.interfaces.Comando;
+import com.educativo.bot.interfaces.GestorDatos;
+
+/**
+ * PARTICIÓN DE DATOS DE UN SERVIDOR
+ * 
+ * Agrupa todo lo que pertenece a un servidor de Discord: versiones,
+ * contadores, almacenes indexados, caché de respuestas, archivo de datos y
+ * los comandos que trabajan sobre ellos. Cada servidor escribe solo en su
+ * partición, así un servidor con mucha actividad no invalida cachés ni
+ * compite por el estado de los demás, y sus índices son más chicos.
+ * 
+ * Los mensajes directos usan una partición propia (ID_DIRECTOS).
+ * 
+ * SHARDING: cada partición conoce el shard dueño de su servidor, que es
+ * el único que recibe sus eventos.
+ */
+public class ParticionServidor {
+    
+    public static final String ID_DIRECTOS = "directos";   // Partición de los mensajes directos
+    
+    // ENCAPSULAMIENTO: Datos del servidor
+    private final String servidorId;
+    private volatile int shardId;
+    private final VersionesDatos versiones;
+    private final EstadisticasGlobales estadisticas;
+    private final AlmacenTareas tareas;
+    private final IndiceMaterias materias;
+    private final RegistroUsuarios usuarios;
+    private final CacheRespuestas cacheRespuestas;
+    private final GestorDatos gestorDatos;
+    private final InstantaneaParticion instantanea;         // null = sin reinicio en caliente
+    private long versionGuardada = -1;                      // Versión de los datos en la última instantánea
+    
+    // Comandos ligados a los datos de esta partición (se registran una vez, al crearla)
+    private final Map<String, Comando> comandos = new LinkedHashMap<>();
+    
+    /**
+     * @param servidorId ID del servidor (o ID_DIRECTOS)
+     * @param shardId Shard dueño del servidor (estimado si aún no se conectó)
+     * @param gestorDatos Persistencia propia del servidor
+     * @param instantanea Instantánea de tareas, usuarios y materias (null = no se guardan)
+     * @param maxRespuestasCacheadas Tamaño máximo de la caché de respuestas
+     */
+    public ParticionServidor(String servidorId, int shardId, GestorDatos gestorDatos,
+                             InstantaneaParticion instantanea, int maxRespuestasCacheadas) {
+        this.servidorId = servidorId;
+        this.shardId = shardId;
+        this.gestorDatos = gestorDatos;
+        this.instantanea = instantanea;
+        this.versiones = new VersionesDatos();
+        this.estadisticas = new EstadisticasGlobales();
+        this.tareas = new AlmacenTareas(versiones, estadisticas);
+        this.materias = new IndiceMaterias(versiones, estadisticas);
+        this.usuarios = new RegistroUsuarios(versiones, estadisticas);
+        this.cacheRespuestas = new CacheRespuestas(versiones, maxRespuestasCacheadas);
+    }
+    
+    /**
+     * Carga la instantánea guardada, si hay una válida
+     * Se llama antes de publicar la partición
+     * 
+     * @return true si se cargó una instantánea
+     */
+    public boolean cargarInstantanea() {
+        InstantaneaParticion.Contenido contenido = instantanea == null ? null : instantanea.leer(servidorId);
+        if (contenido == null) {
+            return false;
+        }
+        long inicio = System.nanoTime();
+        int cantidadMaterias = materias.cargarInstantanea(contenido.getMaterias());
+        int cantidadUsuarios = usuarios.cargarInstantanea(contenido.getUsuarios());
+        int cantidadTareas = tareas.cargarInstantanea(contenido.getTareas());
+        versionGuardada = versionDatos();
+        System.out.println("♻️ Instantánea de " + servidorId + ": " + cantidadTareas + " tarea(s), " +
+                           cantidadUsuarios + " usuario(s), " + cantidadMaterias + " materia(s) en " +
+                           (System.nanoTime() - inicio) / 1_000_000 + " ms");
+        return true;
+    }
+    
+    /**
+     * Guarda los datos pendientes y, si algo cambió desde la última vez,
+     * una instantánea nueva (puntos de control y cierre)
+     * Si al cargar no hubo ninguna instantánea legible, no se escribe
+     * (ver InstantaneaParticion): así un estado vacío no pisa datos reales
+     */
+    public synchronized void sincronizar() {
+        gestorDatos.sincronizar();
+        long version = versionDatos();
+        if (instantanea != null && version != versionGuardada && instantanea.escribir(this)) {
+            versionGuardada = version;
+        }
+    }
+    
+    /**
+     * Suma de las versiones de todos los dominios: cambia con cada escritura
+     */
+    private long versionDatos() {
+        long total = 0;
+        for (VersionesDatos.Dominio dominio : VersionesDatos.Dominio.values()) {
+            total += versiones.getVersion(dominio);
+        }
+        return total;
+    }
+    
+    /**
+     * Registra los comandos de esta partición
+     * Se llama antes de publicar la partición, por eso no necesita sincronización
+     * 
+     * @param disponibles Comandos construidos sobre los datos de esta partición
+     */
+    public void registrarComandos(Comando... disponibles) {
+        for (Comando comando : disponibles) {
+            comandos.put(comando.getNombre(), comando);
+        }
+    }
+    
+    /**
+     * Busca un comando por nombre
+     * 
+     * @param nombre Nombre del comando
+     * @return El comando, o null si no existe
+     */
+    public Comando getComando(String nombre) {
+        return comandos.get(nombre);
+    }
+    
+    /**
+     * @return Comandos registrados (solo lectura)
+     */
+    public Collection<Comando> getComandos() {
+        return Collections.unmodifiableCollection(comandos.values());
+    }
+    
+    // MÉTODOS GETTER
+    
+    public String getServidorId() {
+        return servidorId;
+    }
+    
+    public int getShardId() {
+        return shardId;
+    }
+    
+    /**
+     * Asigna el shard que entrega los eventos de este servidor
+     * (la partición puede crearse antes de que se conozca, durante el inicio)
+     * 
+     * @param shardId Número de shard
+     */
+    public void asignarShard(int shardId) {
+        this.shardId = shardId;
+    }
+    
+    public VersionesDatos getVersiones() {
+        return versiones;
+    }
+    
+    public EstadisticasGlobales getEstadisticas() {
+        return estadisticas;
+    }
+    
+    public AlmacenTareas getTareas() {
+        return tareas;
+    }
+    
+    public IndiceMaterias getMaterias() {
+        return materias;
+    }
+    
+    public RegistroUsuarios getUsuarios() {
+        return usuarios;
+    }
+    
+    public CacheRespuestas getCacheRespuestas() {
+        return cacheRespuestas;
+    }
+    
+    public GestorDatos getGestorDatos() {
+        return gestorDatos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("ParticionServidor{servidor='%s', shard=%d, tareas=%d, materias=%d, usuarios=%d}",
+                             servidorId, shardId, tareas.getTamanio(), materias.getTamanio(), usuarios.getTamanio());
+    }
+}
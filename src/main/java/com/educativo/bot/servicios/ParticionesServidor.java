@@ -0,0 +1,127 @@
+package com.educativo.bot.servicios;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * REGISTRO DE PARTICIONES POR SERVIDOR
+ * 
+ * Crea la partición de cada servidor la primera vez que se la necesita y
+ * la reutiliza después. La fábrica la provee BotEducativo, que sabe qué
+ * comandos y qué archivo de datos corresponden a cada partición.
+ * 
+ * La fábrica es lenta (lee archivos, arma índices, programa recordatorios),
+ * así que NO corre dentro del mapa: se publica primero un futuro vacío con
+ * putIfAbsent y quien lo publicó construye la partición fuera del mapa.
+ * Quien pide la misma partición mientras tanto espera solo ese futuro; las
+ * demás claves no se bloquean entre sí.
+ */
+public class ParticionesServidor {
+    
+    // ENCAPSULAMIENTO: servidorId -> partición (o su construcción en curso)
+    private final Map<String, CompletableFuture<ParticionServidor>> particiones = new ConcurrentHashMap<>();
+    private final Function<String, ParticionServidor> fabrica;
+    
+    /**
+     * @param fabrica Crea la partición de un servidor a partir de su ID
+     */
+    public ParticionesServidor(Function<String, ParticionServidor> fabrica) {
+        this.fabrica = fabrica;
+    }
+    
+    /**
+     * Obtiene (o crea) la partición de un servidor
+     * Si otro hilo la está creando, espera solo a esa partición
+     * 
+     * @param servidorId ID del servidor, o null para mensajes directos
+     * @return Partición del servidor
+     */
+    public ParticionServidor obtener(String servidorId) {
+        String clave = servidorId == null ? ParticionServidor.ID_DIRECTOS : servidorId;
+        CompletableFuture<ParticionServidor> futuro = particiones.get(clave);
+        if (futuro == null) {
+            CompletableFuture<ParticionServidor> nuevo = new CompletableFuture<>();
+            futuro = particiones.putIfAbsent(clave, nuevo);
+            if (futuro == null) {
+                return construir(clave, nuevo);
+            }
+        }
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+    
+    /**
+     * Construye la partición fuera del mapa y la publica en su futuro
+     * Si la fábrica falla se quita el futuro, así un próximo uso lo reintenta
+     */
+    private ParticionServidor construir(String clave, CompletableFuture<ParticionServidor> futuro) {
+        try {
+            ParticionServidor particion = fabrica.apply(clave);
+            futuro.complete(particion);
+            return particion;
+        } catch (RuntimeException e) {
+            particiones.remove(clave, futuro);
+            futuro.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * @return Particiones ya creadas (solo lectura; no incluye las que se están creando)
+     */
+    public Collection<ParticionServidor> getTodas() {
+        List<ParticionServidor> listas = new ArrayList<>(particiones.size());
+        for (CompletableFuture<ParticionServidor> futuro : particiones.values()) {
+            if (futuro.isDone() && !futuro.isCompletedExceptionally()) {
+                listas.add(futuro.join());
+            }
+        }
+        return Collections.unmodifiableCollection(listas);
+    }
+    
+    /**
+     * @return Cantidad de particiones ya creadas
+     */
+    public int getTamanio() {
+        return getTodas().size();
+    }
+    
+    /**
+     * Cuenta las particiones cargadas de un shard
+     * 
+     * @param shardId Número de shard
+     * @return Particiones de servidores de ese shard
+     */
+    public int contarDeShard(int shardId) {
+        int cantidad = 0;
+        for (ParticionServidor particion : getTodas()) {
+            if (particion.getShardId() == shardId) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+    
+    /**
+     * Guarda los datos pendientes y las instantáneas de todas las particiones
+     */
+    public void sincronizarTodas() {
+        for (ParticionServidor particion : getTodas()) {
+            try {
+                particion.sincronizar();
+            } catch (Exception e) {
+                System.err.println("❌ Error al sincronizar datos del servidor " + particion.getServidorId() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.educativo.bot.servicios;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * HILO DE EVENTOS DE UN SHARD, CON CIERRE ORDENADO
+ * 
+ * JDA entrega aquí cada evento del gateway. Mientras el bot funciona, los
+ * eventos se encolan en un único hilo (en orden). Cuando empieza el cierre
+ * (la condición "cerrando" pasa a true) la entrada se corta: los eventos
+ * nuevos se descartan aquí mismo, sin llegar a los listeners, mientras los
+ * que ya estaban en cola terminan normalmente.
+ * 
+ * El gateway sigue entregando eventos hasta que se cierran los shards, por
+ * eso este pool no se da por cerrado (isShutdown() sigue en false) hasta
+ * que se llama a shutdown(): si JDA lo viera cerrado antes, correría los
+ * eventos en el hilo del WebSocket.
+ */
+public class PoolEventos extends AbstractExecutorService {
+    
+    // ENCAPSULAMIENTO: Hilo real y estado del cierre
+    private final ExecutorService hilo;
+    private final BooleanSupplier cerrando;
+    private final AtomicInteger descartados = new AtomicInteger();
+    private volatile boolean apagado;
+    
+    /**
+     * @param nombreHilo Nombre del hilo de eventos
+     * @param cerrando Indica si el bot ya empezó a cerrarse (se consulta en cada evento)
+     */
+    public PoolEventos(String nombreHilo, BooleanSupplier cerrando) {
+        this.cerrando = cerrando;
+        this.hilo = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, nombreHilo);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+    
+    @Override
+    public void execute(Runnable evento) {
+        if (cerrando.getAsBoolean()) {
+            descartados.incrementAndGet();   // Llegó durante el cierre: no se atiende
+            return;
+        }
+        try {
+            hilo.execute(evento);
+        } catch (RejectedExecutionException e) {
+            descartados.incrementAndGet();   // El hilo ya terminó (el cierre empezó recién)
+        }
+    }
+    
+    /**
+     * Espera a que terminen los eventos que ya estaban en cola
+     * Los eventos que sigan llegando se descartan (ver execute)
+     * 
+     * @param plazoMs Tiempo máximo de espera
+     * @return Cantidad de eventos en cola que no alcanzaron a procesarse
+     */
+    public int drenar(long plazoMs) {
+        hilo.shutdown();
+        try {
+            if (hilo.awaitTermination(plazoMs, TimeUnit.MILLISECONDS)) {
+                return 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return hilo.shutdownNow().size();
+    }
+    
+    /**
+     * Cantidad de eventos recibidos durante el cierre y descartados
+     * 
+     * @return Número de eventos
+     */
+    public int getDescartados() {
+        return descartados.get();
+    }
+    
+    @Override
+    public void shutdown() {
+        apagado = true;
+        hilo.shutdown();
+    }
+    
+    @Override
+    public List<Runnable> shutdownNow() {
+        apagado = true;
+        return hilo.shutdownNow();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return apagado;
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return apagado && hilo.isTerminated();
+    }
+    
+    @Override
+    public boolean awaitTermination(long tiempo, TimeUnit unidad) throws InterruptedException {
+        return hilo.awaitTermination(tiempo, unidad);
+    }
+}
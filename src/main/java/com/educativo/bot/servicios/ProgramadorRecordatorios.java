@@ -0,0 +1,397 @@
+package com.educativo.bot.servicios;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.educativo.bot.interfaces.EntregaMensajes;
+import com.educativo.bot.modelos.Tarea;
+import com.educativo.bot.utils.FormateadorMensajes;
+
+/**
+ * RECORDATORIOS DE VENCIMIENTO
+ * 
+ * Programa avisos a cierta anticipación de cada fecha de vencimiento
+ * (por ejemplo 24 horas y 1 hora antes) usando una rueda temporal con
+ * ranuras: programar un aviso es O(1) y cada tick solo revisa una ranura,
+ * así que el costo no crece con la cantidad de tareas pendientes.
+ * 
+ * - Los avisos se indexan por tarea: al completar o eliminar una tarea se
+ *   cancelan, y al reprogramarla se reemplazan, así la rueda crece con las
+ *   tareas vivas y no con los cambios. Al dispararse igual se comprueba
+ *   contra el almacén de origen (el del servidor de la tarea) que siga
+ *   pendiente y con la misma fecha.
+ * - Hay una sola rueda y una sola cola para todos los servidores, así el
+ *   ritmo de mensajes directos es global.
+ * - Los avisos de un mismo usuario que vencen en el mismo tick se agrupan
+ *   en un solo mensaje, dividido en partes si pasa el límite de Discord.
+ * - Los mensajes salen de una cola a un ritmo máximo por segundo para no
+ *   chocar con los límites de Discord.
+ */
+public class ProgramadorRecordatorios {
+    
+    /**
+     * Un aviso programado en la rueda
+     */
+    private static final class Recordatorio {
+        private final AlmacenTareas origen;
+        private final String tareaId;
+        private final LocalDateTime vencimiento;
+        private final Duration anticipacion;
+        private final int ranura;
+        private long vueltas;
+        
+        private Recordatorio(AlmacenTareas origen, String tareaId, LocalDateTime vencimiento,
+                             Duration anticipacion, int ranura, long vueltas) {
+            this.origen = origen;
+            this.tareaId = tareaId;
+            this.vencimiento = vencimiento;
+            this.anticipacion = anticipacion;
+            this.ranura = ranura;
+            this.vueltas = vueltas;
+        }
+    }
+    
+    /**
+     * Mensaje agrupado esperando su turno de envío
+     */
+    private static final class Envio {
+        private final String usuarioId;
+        private final String mensaje;
+        
+        private Envio(String usuarioId, String mensaje) {
+            this.usuarioId = usuarioId;
+            this.mensaje = mensaje;
+        }
+    }
+    
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+    private static final int LARGO_MAXIMO_MENSAJE = 2000;    // Límite de Discord por mensaje
+    
+    // ENCAPSULAMIENTO: Rueda temporal (protegida por el monitor de esta instancia)
+    private final Set<Recordatorio>[] ranuras;
+    // Avisos de cada tarea, por almacén de origen: tareaId -> avisos en la rueda
+    private final Map<AlmacenTareas, Map<String, List<Recordatorio>>> porTarea = new IdentityHashMap<>();
+    private final long duracionTickMs;
+    private long tickActual;
+    private int programados;
+    
+    // ENCAPSULAMIENTO: Cola de salida (protegida por su propio monitor)
+    private final Queue<Envio> colaEnvio = new ArrayDeque<>();
+    
+    private final List<Duration> anticipaciones;
+    private final EntregaMensajes entrega;
+    private final int enviosPorSegundo;
+    
+    /**
+     * @param anticipaciones Cuánto antes del vencimiento avisar (p. ej. 24h y 1h)
+     * @param duracionTickMs Resolución de la rueda en milisegundos
+     * @param cantidadRanuras Ranuras de la rueda (una vuelta = ranuras × tick)
+     * @param enviosPorSegundo Máximo de mensajes enviados por segundo
+     * @param entrega Cómo se envían los mensajes
+     */
+    @SuppressWarnings("unchecked")
+    public ProgramadorRecordatorios(List<Duration> anticipaciones, long duracionTickMs,
+                                    int cantidadRanuras, int enviosPorSegundo, EntregaMensajes entrega) {
+        this.anticipaciones = new ArrayList<>(anticipaciones);
+        this.duracionTickMs = duracionTickMs;
+        this.enviosPorSegundo = enviosPorSegundo;
+        this.entrega = entrega;
+        this.ranuras = new Set[cantidadRanuras];
+        for (int i = 0; i < cantidadRanuras; i++) {
+            ranuras[i] = new LinkedHashSet<>();
+        }
+        this.tickActual = System.currentTimeMillis() / duracionTickMs;
+    }
+    
+    /**
+     * Arranca el avance de la rueda y el envío pausado de mensajes
+     * 
+     * @param programador Ejecutor donde correr ambos trabajos
+     */
+    public void iniciar(ScheduledExecutorService programador) {
+        programador.scheduleAtFixedRate(ejecutarSeguro(this::avanzar),
+                duracionTickMs, duracionTickMs, TimeUnit.MILLISECONDS);
+        programador.scheduleAtFixedRate(ejecutarSeguro(this::enviarPendientes),
+                1, 1, TimeUnit.SECONDS);
+    }
+    
+    // ========================
+    // PROGRAMACIÓN
+    // ========================
+    
+    /**
+     * Programa los avisos de una tarea según su fecha de vencimiento actual,
+     * reemplazando los que tuviera de una fecha anterior
+     * Las fechas de aviso que ya pasaron se omiten
+     * 
+     * @param origen Almacén donde vive la tarea
+     * @param tarea Tarea con fecha de vencimiento
+     */
+    public synchronized void programar(AlmacenTareas origen, Tarea tarea) {
+        cancelar(origen, tarea.getId());
+        if (tarea.isCompletada() || tarea.getFechaVencimiento() == null) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        long vencimientoMs = aMilisegundos(tarea.getFechaVencimiento());
+        
+        for (Duration anticipacion : anticipaciones) {
+            long avisoMs = vencimientoMs - anticipacion.toMillis();
+            if (avisoMs < ahora) {
+                continue;
+            }
+            long tick = Math.max(avisoMs / duracionTickMs, tickActual + 1);
+            long vueltas = (tick - tickActual - 1) / ranuras.length;
+            int ranura = (int) (tick % ranuras.length);
+            Recordatorio recordatorio = new Recordatorio(origen, tarea.getId(), tarea.getFechaVencimiento(),
+                    anticipacion, ranura, vueltas);
+            ranuras[ranura].add(recordatorio);
+            porTarea.computeIfAbsent(origen, a -> new HashMap<>())
+                    .computeIfAbsent(tarea.getId(), id -> new ArrayList<>(anticipaciones.size()))
+                    .add(recordatorio);
+            programados++;
+        }
+    }
+    
+    /**
+     * Quita de la rueda los avisos de una tarea (completada, eliminada o
+     * con otra fecha)
+     * 
+     * @param origen Almacén donde vive la tarea
+     * @param tareaId ID de la tarea
+     */
+    public synchronized void cancelar(AlmacenTareas origen, String tareaId) {
+        Map<String, List<Recordatorio>> delAlmacen = porTarea.get(origen);
+        if (delAlmacen == null) {
+            return;
+        }
+        List<Recordatorio> avisos = delAlmacen.remove(tareaId);
+        if (avisos == null) {
+            return;
+        }
+        for (Recordatorio recordatorio : avisos) {
+            if (ranuras[recordatorio.ranura].remove(recordatorio)) {
+                programados--;
+            }
+        }
+        if (delAlmacen.isEmpty()) {
+            porTarea.remove(origen);
+        }
+    }
+    
+    /**
+     * Cancela los avisos de varias tareas (operaciones en lote)
+     * 
+     * @param origen Almacén donde viven las tareas
+     * @param tareas Tareas completadas o eliminadas
+     */
+    public synchronized void cancelarTodas(AlmacenTareas origen, List<Tarea> tareas) {
+        for (Tarea tarea : tareas) {
+            cancelar(origen, tarea.getId());
+        }
+    }
+    
+    /**
+     * Programa los avisos de todas las tareas pendientes de un almacén
+     * (al cargar la partición de un servidor)
+     * 
+     * @param origen Almacén donde viven las tareas
+     * @param pendientes Tareas pendientes con fecha de vencimiento
+     */
+    public synchronized void programarTodas(AlmacenTareas origen, List<Tarea> pendientes) {
+        for (Tarea tarea : pendientes) {
+            programar(origen, tarea);
+        }
+    }
+    
+    /**
+     * Avanza la rueda hasta el tick actual y encola los avisos vencidos,
+     * agrupados en un mensaje por usuario
+     */
+    public void avanzar() {
+        Map<String, List<String>> lineasPorUsuario = new LinkedHashMap<>();
+        
+        synchronized (this) {
+            long objetivo = System.currentTimeMillis() / duracionTickMs;
+            while (tickActual < objetivo) {
+                tickActual++;
+                Iterator<Recordatorio> it = ranuras[(int) (tickActual % ranuras.length)].iterator();
+                while (it.hasNext()) {
+                    Recordatorio recordatorio = it.next();
+                    if (recordatorio.vueltas > 0) {
+                        recordatorio.vueltas--;
+                        continue;
+                    }
+                    it.remove();
+                    programados--;
+                    olvidar(recordatorio);
+                    disparar(recordatorio, lineasPorUsuario);
+                }
+            }
+        }
+        
+        if (lineasPorUsuario.isEmpty()) {
+            return;
+        }
+        synchronized (colaEnvio) {
+            for (Map.Entry<String, List<String>> entrada : lineasPorUsuario.entrySet()) {
+                // Cada parte sale como un mensaje propio, al ritmo de la cola
+                String mensaje = formatearMensaje(entrada.getValue());
+                for (String parte : FormateadorMensajes.dividirMensaje(mensaje, LARGO_MAXIMO_MENSAJE)) {
+                    colaEnvio.add(new Envio(entrada.getKey(), parte));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Envía como máximo enviosPorSegundo mensajes de la cola
+     */
+    public void enviarPendientes() {
+        for (int i = 0; i < enviosPorSegundo; i++) {
+            Envio envio;
+            synchronized (colaEnvio) {
+                envio = colaEnvio.poll();
+            }
+            if (envio == null) {
+                return;
+            }
+            entrega.enviarMensajeDirecto(envio.usuarioId, envio.mensaje);
+        }
+    }
+    
+    /**
+     * Vacía la cola de salida al cerrar el bot, respetando el ritmo de envío
+     * hasta que se agote el plazo; lo que no alcanzó a salir se descarta
+     * 
+     * @param plazoMs Tiempo máximo para enviar lo pendiente
+     * @return Cantidad de mensajes descartados
+     */
+    public int drenar(long plazoMs) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(plazoMs);
+        while (getEnviosPendientes() > 0) {
+            enviarPendientes();
+            long restanteMs = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+            if (getEnviosPendientes() == 0 || restanteMs < 1000) {
+                break;
+            }
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        synchronized (colaEnvio) {
+            int descartados = colaEnvio.size();
+            colaEnvio.clear();
+            return descartados;
+        }
+    }
+    
+    // ========================
+    // CONSULTAS
+    // ========================
+    
+    /**
+     * Cantidad de avisos programados en la rueda
+     * 
+     * @return Número de avisos
+     */
+    public synchronized int getProgramados() {
+        return programados;
+    }
+    
+    /**
+     * Cantidad de mensajes esperando su turno de envío
+     * 
+     * @return Número de mensajes en cola
+     */
+    public int getEnviosPendientes() {
+        synchronized (colaEnvio) {
+            return colaEnvio.size();
+        }
+    }
+    
+    // ========================
+    // MÉTODOS AUXILIARES
+    // ========================
+    
+    /**
+     * Quita un aviso ya disparado del índice por tarea
+     */
+    private void olvidar(Recordatorio recordatorio) {
+        Map<String, List<Recordatorio>> delAlmacen = porTarea.get(recordatorio.origen);
+        if (delAlmacen == null) {
+            return;
+        }
+        List<Recordatorio> avisos = delAlmacen.get(recordatorio.tareaId);
+        if (avisos != null && avisos.remove(recordatorio) && avisos.isEmpty()) {
+            delAlmacen.remove(recordatorio.tareaId);
+            if (delAlmacen.isEmpty()) {
+                porTarea.remove(recordatorio.origen);
+            }
+        }
+    }
+    
+    /**
+     * Valida un aviso contra el almacén y agrega su línea al usuario dueño
+     */
+    private void disparar(Recordatorio recordatorio, Map<String, List<String>> lineasPorUsuario) {
+        Tarea tarea = recordatorio.origen.buscarPorId(recordatorio.tareaId);
+        if (tarea == null || tarea.isCompletada() || !recordatorio.vencimiento.equals(tarea.getFechaVencimiento())) {
+            return; // Eliminada, completada o con otra fecha: el aviso ya no aplica
+        }
+        lineasPorUsuario.computeIfAbsent(tarea.getCreadorId(), id -> new ArrayList<>())
+                .add("• **" + tarea.getTitulo() + "** vence en " + formatearAnticipacion(recordatorio.anticipacion) +
+                     " (" + tarea.getFechaVencimiento().format(FORMATO_FECHA) + ")");
+    }
+    
+    private String formatearMensaje(List<String> lineas) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("⏰ **RECORDATORIO DE TAREAS**\n\n");
+        for (String linea : lineas) {
+            sb.append(linea).append("\n");
+        }
+        sb.append("\nUsa `!tarea listar pendientes` para verlas.");
+        return sb.toString();
+    }
+    
+    private static String formatearAnticipacion(Duration anticipacion) {
+        long horas = anticipacion.toHours();
+        if (horas > 0 && anticipacion.toMinutes() % 60 == 0) {
+            return horas == 1 ? "1 hora" : horas + " horas";
+        }
+        return anticipacion.toMinutes() + " minutos";
+    }
+    
+    private static long aMilisegundos(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private Runnable ejecutarSeguro(Runnable trabajo) {
+        return () -> {
+            try {
+                trabajo.run();
+            } catch (Exception e) {
+                System.err.println("❌ Error en recordatorios: " + e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,213 @@
+package com.educativo.bot.servicios;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.educativo.bot.modelos.Usuario;
+import com.educativo.bot.servicios.VersionesDatos.Dominio;
+
+/**
+ * REGISTRO ÚNICO DE USUARIOS
+ * 
+ * Única copia autorizada de cada usuario del bot, compartida por todos los
+ * comandos. Está indexada por ID de Discord en un mapa concurrente, así que
+ * buscar u obtener-o-crear un usuario es O(1) y atómico: dos comandos del
+ * mismo usuario nunca crean dos copias distintas.
+ * 
+ * Los cambios de puntos de un usuario se serializan sobre su propio monitor
+ * (sin bloquear a los demás usuarios) para no perder sumas concurrentes.
+ * Los cambios de puntos pasan por aquí para mantener al día las versiones
+ * y la clasificación incremental, así el ranking nunca se ordena completo.
+ */
+public class RegistroUsuarios {
+    
+    // ENCAPSULAMIENTO: usuarioId -> usuario
+    private final Map<String, Usuario> usuarios = new ConcurrentHashMap<>();
+    private final AtomicInteger contadorNombres = new AtomicInteger();
+    private final VersionesDatos versiones;
+    private final EstadisticasGlobales estadisticas;
+    private final Clasificacion clasificacion = new Clasificacion();
+    
+    /**
+     * @param versiones Versiones de datos a incrementar en cada escritura
+     * @param estadisticas Contadores globales a mantener en cada escritura
+     */
+    public RegistroUsuarios(VersionesDatos versiones, EstadisticasGlobales estadisticas) {
+        this.versiones = versiones;
+        this.estadisticas = estadisticas;
+    }
+    
+    /**
+     * Obtiene un usuario, creándolo si es la primera vez que usa el bot
+     * 
+     * @param usuarioId ID de Discord del usuario
+     * @return El usuario (siempre la misma instancia para el mismo ID)
+     */
+    public Usuario obtenerOCrear(String usuarioId) {
+        Usuario usuario = usuarios.get(usuarioId);
+        if (usuario != null) {
+            return usuario;
+        }
+        return usuarios.computeIfAbsent(usuarioId, id -> {
+            Usuario nuevo = new Usuario(id, "Usuario" + contadorNombres.getAndIncrement());
+            clasificacion.actualizar(nuevo);
+            estadisticas.actividadRegistrada(id);
+            versiones.incrementar(Dominio.USUARIOS);
+            return nuevo;
+        });
+    }
+    
+    /**
+     * Carga de una vez los usuarios de una instantánea (reinicio en caliente)
+     * La clasificación se arma con todos y las estadísticas se actualizan una vez,
+     * incluida la ventana de usuarios activos (con la última actividad guardada)
+     * 
+     * @param cargados Usuarios leídos de la instantánea
+     * @return Cantidad de usuarios cargados (se omiten los que ya existían)
+     */
+    public int cargarInstantanea(List<Usuario> cargados) {
+        int agregados = 0;
+        long puntosCargados = 0;
+        long limiteActividad = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(24);
+        Map<String, Long> actividades = new HashMap<>();
+        for (Usuario usuario : cargados) {
+            if (usuarios.putIfAbsent(usuario.getId(), usuario) == null) {
+                clasificacion.actualizar(usuario);
+                puntosCargados += usuario.getPuntos();
+                agregados++;
+                if (usuario.getUltimaActividad() != null) {
+                    long actividad = usuario.getUltimaActividad()
+                            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    if (actividad > limiteActividad) {
+                        actividades.put(usuario.getId(), actividad);
+                    }
+                }
+            }
+        }
+        if (agregados > 0) {
+            contadorNombres.addAndGet(agregados); // Los nombres nuevos siguen después de los cargados
+            estadisticas.puntosCambiados(puntosCargados);
+            estadisticas.actividadesCargadas(actividades);
+            versiones.incrementar(Dominio.USUARIOS);
+        }
+        return agregados;
+    }
+    
+    /**
+     * Busca un usuario sin crearlo
+     * 
+     * @param usuarioId ID de Discord del usuario
+     * @return El usuario, o null si nunca usó el bot
+     */
+    public Usuario buscar(String usuarioId) {
+        return usuarios.get(usuarioId);
+    }
+    
+    /**
+     * Otorga puntos a un usuario
+     * 
+     * @param usuario Usuario que recibe los puntos
+     * @param puntos Cantidad de puntos
+     * @param materia Materia en la que se ganaron (puede ser null)
+     */
+    public void agregarPuntos(Usuario usuario, int puntos, String materia) {
+        int diferencia;
+        synchronized (usuario) {
+            int antes = usuario.getPuntos();
+            usuario.agregarPuntos(puntos, materia);
+            diferencia = usuario.getPuntos() - antes;
+        }
+        clasificacion.actualizar(usuario);
+        estadisticas.puntosCambiados(diferencia);
+        estadisticas.actividadRegistrada(usuario.getId());
+        versiones.incrementar(Dominio.USUARIOS);
+    }
+    
+    /**
+     * Otorga de una vez los puntos ganados en varias materias
+     * La clasificación y las estadísticas se actualizan una sola vez
+     * 
+     * @param usuario Usuario que recibe los puntos
+     * @param puntosPorMateria Puntos ganados en cada materia
+     */
+    public void agregarPuntosPorMateria(Usuario usuario, Map<String, Integer> puntosPorMateria) {
+        if (puntosPorMateria.isEmpty()) {
+            return;
+        }
+        int diferencia;
+        synchronized (usuario) {
+            int antes = usuario.getPuntos();
+            for (Map.Entry<String, Integer> entrada : puntosPorMateria.entrySet()) {
+                usuario.agregarPuntos(entrada.getValue(), entrada.getKey());
+            }
+            diferencia = usuario.getPuntos() - antes;
+        }
+        clasificacion.actualizar(usuario);
+        estadisticas.puntosCambiados(diferencia);
+        estadisticas.actividadRegistrada(usuario.getId());
+        versiones.incrementar(Dominio.USUARIOS);
+    }
+    
+    /**
+     * Quita puntos a un usuario
+     * 
+     * @param usuario Usuario penalizado
+     * @param puntos Cantidad de puntos
+     */
+    public void quitarPuntos(Usuario usuario, int puntos) {
+        int diferencia;
+        synchronized (usuario) {
+            int antes = usuario.getPuntos();
+            usuario.quitarPuntos(puntos);
+            diferencia = usuario.getPuntos() - antes;
+        }
+        clasificacion.actualizar(usuario);
+        estadisticas.puntosCambiados(diferencia);
+        estadisticas.actividadRegistrada(usuario.getId());
+        versiones.incrementar(Dominio.USUARIOS);
+    }
+    
+    /**
+     * Posición de un usuario en el ranking de puntos - O(log n)
+     * 
+     * @param usuarioId ID de Discord del usuario
+     * @return Posición (1 = más puntos), o 0 si nunca usó el bot
+     */
+    public int getPosicionRanking(String usuarioId) {
+        return clasificacion.posicion(usuarioId);
+    }
+    
+    /**
+     * Los usuarios con más puntos, en orden - O(log n + limite)
+     * 
+     * @param limite Cantidad máxima de usuarios
+     * @return Lista ordenada de mayor a menor puntaje
+     */
+    public List<Usuario> getRanking(int limite) {
+        return clasificacion.top(limite);
+    }
+    
+    /**
+     * Todos los usuarios registrados
+     * 
+     * @return Copia de la lista de usuarios
+     */
+    public List<Usuario> getTodos() {
+        return new ArrayList<>(usuarios.values());
+    }
+    
+    /**
+     * Cantidad de usuarios registrados
+     * 
+     * @return Número de usuarios
+     */
+    public int getTamanio() {
+        return usuarios.size();
+    }
+}
@@ -0,0 +1,162 @@
+package com.educativo.bot.servicios;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.educativo.bot.modelos.Permiso;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleAddEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberRoleRemoveEvent;
+import net.dv8tion.jda.api.events.guild.member.GuildMemberUpdateEvent;
+import net.dv8tion.jda.api.events.guild.update.GuildUpdateOwnerEvent;
+import net.dv8tion.jda.api.events.role.RoleDeleteEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.events.role.update.RoleUpdatePermissionsEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+
+/**
+ * RESOLUCIÓN DE PERMISOS A PARTIR DE ROLES DE DISCORD
+ * 
+ * Calcula la máscara de permisos del bot (ver Permiso) a partir de los roles
+ * del miembro y la guarda en una caché por servidor. La caché no se consulta
+ * contra Discord en cada comando: se invalida cuando llegan eventos del
+ * gateway que cambian roles o miembros.
+ * 
+ * HERENCIA: Extiende ListenerAdapter para recibir esos eventos.
+ * 
+ * Con la caché liviana de JDA los miembros no quedan en caché, y para esos
+ * JDA no emite eventos de roles agregados o quitados, solo el evento
+ * general de actualización: por eso también se invalida con ese.
+ */
+public class ResolutorPermisos extends ListenerAdapter {
+    
+    // Nombres de rol (en minúsculas) que otorgan permisos del bot
+    private static final Map<String, Long> PERMISOS_POR_ROL = Map.of(
+        "admin", Permiso.mascara(Permiso.ADMINISTRADOR, Permiso.MODERADOR),
+        "administrador", Permiso.mascara(Permiso.ADMINISTRADOR, Permiso.MODERADOR),
+        "moderador", Permiso.MODERADOR.getBit(),
+        "docente", Permiso.DOCENTE.getBit(),
+        "profesor", Permiso.DOCENTE.getBit()
+    );
+    
+    // ENCAPSULAMIENTO: servidorId -> (usuarioId -> máscara de permisos)
+    private final Map<String, Map<String, Long>> cachePorServidor = new ConcurrentHashMap<>();
+    
+    /**
+     * Obtiene los permisos de un miembro, calculándolos solo si no están en caché
+     * 
+     * @param miembro Miembro del servidor, o null si el mensaje no viene de un servidor
+     * @return Máscara de permisos (0 si no tiene ninguno)
+     */
+    public long obtenerPermisos(Member miembro) {
+        if (miembro == null) {
+            return 0L;
+        }
+        
+        Map<String, Long> cacheServidor = cachePorServidor
+                .computeIfAbsent(miembro.getGuild().getId(), id -> new ConcurrentHashMap<>());
+        // computeIfAbsent es atómico: una invalidación que llega mientras se
+        // calcula espera a que termine y luego borra el resultado, en vez de
+        // perderse y dejar guardada una máscara vieja
+        return cacheServidor.computeIfAbsent(miembro.getId(), id -> calcularPermisos(miembro));
+    }
+    
+    /**
+     * Calcula los permisos a partir de los permisos de Discord y los roles del miembro
+     * 
+     * @param miembro Miembro del servidor
+     * @return Máscara de permisos
+     */
+    private long calcularPermisos(Member miembro) {
+        if (miembro.isOwner() || miembro.hasPermission(Permission.ADMINISTRATOR)) {
+            return Permiso.mascara(Permiso.values());
+        }
+        
+        long permisos = 0L;
+        if (miembro.hasPermission(Permission.MANAGE_SERVER) || miembro.hasPermission(Permission.MODERATE_MEMBERS)) {
+            permisos |= Permiso.MODERADOR.getBit();
+        }
+        for (Role rol : miembro.getRoles()) {
+            permisos |= PERMISOS_POR_ROL.getOrDefault(rol.getName().toLowerCase(Locale.ROOT), 0L);
+        }
+        return permisos;
+    }
+    
+    /**
+     * Invalida los permisos cacheados de un miembro
+     * 
+     * @param servidorId ID del servidor
+     * @param usuarioId ID del usuario
+     */
+    public void invalidarMiembro(String servidorId, String usuarioId) {
+        Map<String, Long> cacheServidor = cachePorServidor.get(servidorId);
+        if (cacheServidor != null) {
+            cacheServidor.remove(usuarioId);
+        }
+    }
+    
+    /**
+     * Invalida todos los permisos cacheados de un servidor
+     * (un cambio en un rol afecta a todos los miembros que lo tienen)
+     * 
+     * @param servidorId ID del servidor
+     */
+    public void invalidarServidor(String servidorId) {
+        cachePorServidor.remove(servidorId);
+    }
+    
+    // ========================
+    // EVENTOS DEL GATEWAY - POLIMORFISMO por sobrescritura
+    // ========================
+    
+    @Override
+    public void onGuildMemberRoleAdd(GuildMemberRoleAddEvent event) {
+        invalidarMiembro(event.getGuild().getId(), event.getUser().getId());
+    }
+    
+    @Override
+    public void onGuildMemberRoleRemove(GuildMemberRoleRemoveEvent event) {
+        invalidarMiembro(event.getGuild().getId(), event.getUser().getId());
+    }
+    
+    @Override
+    public void onGuildMemberUpdate(GuildMemberUpdateEvent event) {
+        invalidarMiembro(event.getGuild().getId(), event.getUser().getId());
+    }
+    
+    @Override
+    public void onGuildMemberRemove(GuildMemberRemoveEvent event) {
+        invalidarMiembro(event.getGuild().getId(), event.getUser().getId());
+    }
+    
+    @Override
+    public void onRoleUpdatePermissions(RoleUpdatePermissionsEvent event) {
+        invalidarServidor(event.getGuild().getId());
+    }
+    
+    @Override
+    public void onRoleUpdateName(RoleUpdateNameEvent event) {
+        invalidarServidor(event.getGuild().getId());
+    }
+    
+    @Override
+    public void onRoleDelete(RoleDeleteEvent event) {
+        invalidarServidor(event.getGuild().getId());
+    }
+    
+    @Override
+    public void onGuildUpdateOwner(GuildUpdateOwnerEvent event) {
+        invalidarServidor(event.getGuild().getId());
+    }
+    
+    @Override
+    public void onGuildLeave(GuildLeaveEvent event) {
+        invalidarServidor(event.getGuild().getId());
+    }
+}
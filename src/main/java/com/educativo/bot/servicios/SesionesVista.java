@@ -0,0 +1,163 @@
+package com.educativo.bot.servicios;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.educativo.bot.modelos.Tarea;
+
+/**
+ * SESIONES DE VISTA DE LISTADOS
+ * 
+ * Recuerda el último listado de tareas que vio cada usuario (los IDs en el
+ * mismo orden en que se mostraron), para que "!tarea completar 3" actúe sobre
+ * la tarea que el usuario vio con el número 3, resolviéndola en tiempo constante.
+ * 
+ * Las sesiones son cortas (expiran tras un tiempo) y acotadas: si hay
+ * demasiadas, se descarta la usada hace más tiempo.
+ * 
+ * PAGINACIÓN: la vista guarda además el encabezado del listado, así las
+ * páginas siguientes se dibujan desde aquí sin volver a consultar el
+ * almacén completo. Cada vista tiene un ID propio para que los botones de
+ * un listado viejo no muestren las páginas de uno más nuevo.
+ */
+public class SesionesVista {
+    
+    /**
+     * Listado tal como se le mostró a un usuario
+     */
+    public static final class Vista {
+        private final String id;
+        private final String[] tareasIds;
+        private final String encabezado;
+        private final long expiraEn;
+        
+        private Vista(String id, String[] tareasIds, String encabezado, long expiraEn) {
+            this.id = id;
+            this.tareasIds = tareasIds;
+            this.encabezado = encabezado;
+            this.expiraEn = expiraEn;
+        }
+        
+        /**
+         * ID de este listado (distinto en cada registro)
+         * 
+         * @return ID corto del listado
+         */
+        public String getId() {
+            return id;
+        }
+        
+        /**
+         * Encabezado con el que se mostró el listado
+         * 
+         * @return Encabezado ("" si no tiene)
+         */
+        public String getEncabezado() {
+            return encabezado;
+        }
+        
+        /**
+         * Obtiene el ID de la tarea mostrada con un número
+         * 
+         * @param numero Número mostrado al usuario (desde 1)
+         * @return ID de la tarea, o null si el número está fuera de rango
+         */
+        public String getTareaId(int numero) {
+            if (numero < 1 || numero > tareasIds.length) {
+                return null;
+            }
+            return tareasIds[numero - 1];
+        }
+        
+        /**
+         * Cantidad de tareas del listado
+         * 
+         * @return Número de tareas mostradas
+         */
+        public int getTamanio() {
+            return tareasIds.length;
+        }
+    }
+    
+    // ENCAPSULAMIENTO: usuarioId -> vista, en orden de uso (LRU)
+    private final Map<String, Vista> vistas;
+    private final long duracionMilisegundos;
+    private final AtomicLong contadorIds = new AtomicLong();
+    
+    /**
+     * @param maxSesiones Cantidad máxima de sesiones guardadas a la vez
+     * @param duracionMilisegundos Tiempo de vida de cada sesión
+     */
+    public SesionesVista(int maxSesiones, long duracionMilisegundos) {
+        this.duracionMilisegundos = duracionMilisegundos;
+        this.vistas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Vista> eldest) {
+                return size() > maxSesiones;
+            }
+        };
+    }
+    
+    /**
+     * Registra el listado que se acaba de mostrar a un usuario
+     * 
+     * @param usuarioId ID del usuario
+     * @param tareasMostradas Tareas en el orden en que se numeraron
+     * @return La vista registrada
+     */
+    public Vista registrar(String usuarioId, List<Tarea> tareasMostradas) {
+        return registrar(usuarioId, tareasMostradas, "");
+    }
+    
+    /**
+     * Registra el listado que se acaba de mostrar a un usuario, junto con su encabezado
+     * 
+     * @param usuarioId ID del usuario
+     * @param tareasMostradas Tareas en el orden en que se numeraron
+     * @param encabezado Encabezado del listado, para dibujar sus páginas
+     * @return La vista registrada
+     */
+    public Vista registrar(String usuarioId, List<Tarea> tareasMostradas, String encabezado) {
+        String[] ids = new String[tareasMostradas.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tareasMostradas.get(i).getId();
+        }
+        
+        String vistaId = Long.toString(contadorIds.incrementAndGet(), Character.MAX_RADIX);
+        Vista vista = new Vista(vistaId, ids, encabezado, System.currentTimeMillis() + duracionMilisegundos);
+        synchronized (vistas) {
+            vistas.put(usuarioId, vista);
+        }
+        return vista;
+    }
+    
+    /**
+     * Obtiene el último listado vigente de un usuario
+     * 
+     * @param usuarioId ID del usuario
+     * @return La vista, o null si no hay o ya expiró
+     */
+    public Vista obtener(String usuarioId) {
+        synchronized (vistas) {
+            Vista vista = vistas.get(usuarioId);
+            if (vista != null && vista.expiraEn < System.currentTimeMillis()) {
+                vistas.remove(usuarioId);
+                return null;
+            }
+            return vista;
+        }
+    }
+    
+    /**
+     * Cantidad de sesiones guardadas
+     * 
+     * @return Número de sesiones (incluye las expiradas aún no limpiadas)
+     */
+    public int getTamanio() {
+        synchronized (vistas) {
+            return vistas.size();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.educativo.bot.servicios;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * VERSIONES DE LOS DATOS DEL BOT
+ * 
+ * Mantiene un contador por cada tipo de dato (materias, tareas, usuarios).
+ * Cada escritura incrementa el contador correspondiente, de modo que quien
+ * guardó un resultado calculado a partir de esos datos puede saber si sigue
+ * vigente comparando versiones, sin volver a recorrer nada.
+ */
+public class VersionesDatos {
+    
+    /**
+     * Tipos de datos versionados
+     */
+    public enum Dominio {
+        MATERIAS,
+        TAREAS,
+        USUARIOS
+    }
+    
+    // ENCAPSULAMIENTO: Un contador atómico por dominio (índice = ordinal)
+    private final AtomicLongArray versiones = new AtomicLongArray(Dominio.values().length);
+    
+    /**
+     * Registra una escritura sobre un dominio
+     * 
+     * @param dominio Dominio modificado
+     */
+    public void incrementar(Dominio dominio) {
+        versiones.incrementAndGet(dominio.ordinal());
+    }
+    
+    /**
+     * Obtiene la versión actual de un dominio
+     * 
+     * @param dominio Dominio a consultar
+     * @return Versión actual
+     */
+    public long getVersion(Dominio dominio) {
+        return versiones.get(dominio.ordinal());
+    }
+    
+    /**
+     * Toma una foto de las versiones de todos los dominios pedidos
+     * Los dominios que no están en el conjunto quedan en 0
+     * 
+     * @param dominios Dominios de interés
+     * @return Array con la versión de cada dominio (índice = ordinal)
+     */
+    public long[] capturar(Set<Dominio> dominios) {
+        long[] captura = new long[versiones.length()];
+        for (Dominio dominio : dominios) {
+            captura[dominio.ordinal()] = versiones.get(dominio.ordinal());
+        }
+        return captura;
+    }
+    
+    /**
+     * Verifica si una captura anterior sigue vigente
+     * 
+     * @param captura Versiones capturadas con capturar()
+     * @param dominios Dominios que se capturaron
+     * @return true si ninguno de los dominios cambió desde la captura
+     */
+    public boolean vigente(long[] captura, Set<Dominio> dominios) {
+        for (Dominio dominio : dominios) {
+            if (captura[dominio.ordinal()] != versiones.get(dominio.ordinal())) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("VersionesDatos{materias=%d, tareas=%d, usuarios=%d}",
+                             getVersion(Dominio.MATERIAS), getVersion(Dominio.TAREAS), getVersion(Dominio.USUARIOS));
+    }
+}
@@ -63,12 +63,8 @@ public class FormateadorMensajes {
             Materia m = materias.get(i);
             sb.append("**").append(i + 1).append(".** ")
               .append(m.getCodigo()).append(" - ")
-              .append(m.getNombre());
-            
-            if (m.getCantidadTareas() > 0) {
-                sb.append(" (").append(m.getCantidadTareas()).append(" tareas)");
-            }
-            sb.append("\n");
+              .append(m.getNombre())
+              .append("\n");
         }
         
         return info(sb.toString());
@@ -155,4 +151,30 @@ public class FormateadorMensajes {
         return error(tipo + " no encontrada: **" + identificador + "**\n\n" +
                     "💡 Usa `!" + tipo.toLowerCase() + " listar` para ver disponibles");
     }
+    
+    /**
+     * FUNCIONES: Función estática para dividir mensajes largos
+     * Demuestra el concepto de FUNCIONES (métodos estáticos utilitarios)
+     * 
+     * @param mensaje Mensaje a dividir
+     * @param tamanioMaximo Tamaño máximo por parte
+     * @return Array de partes del mensaje
+     */
+    public static String[] dividirMensaje(String mensaje, int tamanioMaximo) {
+        if (mensaje.length() <= tamanioMaximo) {
+            return new String[]{mensaje};
+        }
+        
+        // Calcular número de partes necesarias
+        int numPartes = (int) Math.ceil((double) mensaje.length() / tamanioMaximo);
+        String[] partes = new String[numPartes];
+        
+        for (int i = 0; i < numPartes; i++) {
+            int inicio = i * tamanioMaximo;
+            int fin = Math.min(inicio + tamanioMaximo, mensaje.length());
+            partes[i] = mensaje.substring(inicio, fin);
+        }
+        
+        return partes;
+    }
 }